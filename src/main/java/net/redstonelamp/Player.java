@@ -41,6 +41,7 @@ import net.redstonelamp.item.Item;
 import net.redstonelamp.level.ChunkPosition;
 import net.redstonelamp.level.position.BlockPosition;
 import net.redstonelamp.network.Protocol;
+import net.redstonelamp.network.SessionRegistry;
 import net.redstonelamp.permission.OperatorPermissions;
 import net.redstonelamp.permission.Permission;
 import net.redstonelamp.permission.PermissionAttachment;
@@ -60,6 +61,7 @@ public class Player extends PlayerEntity implements CommandSender{
     private final Server server;
     private final SocketAddress address;
     private final String identifier;
+    private final int sessionId;
 
     private long startLogin;
 
@@ -93,6 +95,7 @@ public class Player extends PlayerEntity implements CommandSender{
         this.identifier = identifier;
         this.userAgent = "unknown";
         address = null;
+        sessionId = SessionRegistry.NO_SESSION;
 
         server = protocol.getManager().getServer();
     }
@@ -106,9 +109,23 @@ public class Player extends PlayerEntity implements CommandSender{
      * @param address  The SocketAddress this player is connecting from
      */
     public Player(Protocol protocol, String userAgent, SocketAddress address){
+        this(protocol, userAgent, address, protocol.getManager().getSessions().open(address));
+    }
+
+    /**
+     * Construct a new Player instance belonging to the specified <code>Protocol</code> connecting from
+     * <code>address</code> in the session <code>sessionId</code>
+     *
+     * @param protocol  The protocol this player belongs to
+     * @param userAgent The user-agent, or platform this player is connecting from.
+     * @param address   The SocketAddress this player is connecting from
+     * @param sessionId The id of the session this player is connecting in
+     */
+    public Player(Protocol protocol, String userAgent, SocketAddress address, int sessionId){
         this.protocol = protocol;
         this.address = address;
         this.userAgent = userAgent;
+        this.sessionId = sessionId;
 
         identifier = address.toString();
         server = protocol.getManager().getServer();
@@ -184,6 +201,7 @@ public class Player extends PlayerEntity implements CommandSender{
 
             setName(username);
             displayName = username;
+            server.indexPlayerName(this);
 
             loadPlayerData();
 
@@ -252,7 +270,7 @@ public class Player extends PlayerEntity implements CommandSender{
                 if(gamemode == 1){
                     PlayerMoveResponse response = new PlayerMoveResponse(getEntityID(), pmr.position, pmr.onGround);
                     setPosition(pmr.position);
-                    server.broadcastResponse(server.getPlayers().stream().filter(player -> player != this), response);
+                    server.getNetworkManager().getMovements().record(this, response); //Broadcasted once per tick
                 } //TODO: Check movement if in survival
             }
         }else if(request instanceof PlayerEquipmentRequest){
@@ -408,6 +426,15 @@ public class Player extends PlayerEntity implements CommandSender{
         return address;
     }
 
+    /**
+     * Get the id of the session this player is connected in. Session ids are unique among all connections.
+     *
+     * @return The session id.
+     */
+    public int getSessionId(){
+        return sessionId;
+    }
+
     public boolean isSpawned(){
         return spawned;
     }
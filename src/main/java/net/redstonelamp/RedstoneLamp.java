@@ -48,7 +48,7 @@ public class RedstoneLamp{
             main.getDefaultResources();
             PropertiesConfig config = new PropertiesConfig(new File("server.properties"));
             YamlConfig conf = new YamlConfig("redstonelamp.yml");
-            SERVER = new Server(getLogger(args), config, conf); //TODO: Correct logger
+            SERVER = new Server(getLogger(args, conf), config, conf); //TODO: Correct logger
             SERVER.getPluginSystem().enablePlugins();
             SERVER.run();
         }catch(Exception e){
@@ -76,6 +76,26 @@ public class RedstoneLamp{
         return new Logger(new Log4j2ConsoleOut("RedstoneLamp"));
     }
 
+    /**
+     * Create the server's logger. Unless disabled in the <code>logging</code> section of <code>conf</code>, messages
+     * are written to the console on a separate thread.
+     *
+     * @param args The command line arguments
+     * @param conf The RedstoneLamp configuration
+     * @return The logger
+     */
+    public static Logger getLogger(String[] args, YamlConfig conf) {
+        Logger logger = getLogger(args);
+        if(logger.getConsoleOutClass() != Log4j2ConsoleOut.class || !conf.getBoolean("logging.async", true)) {
+            return logger;
+        }
+        String overflow = conf.getString("logging.overflow");
+        AsyncLogWriter.OverflowPolicy policy = overflow != null && overflow.trim().equalsIgnoreCase("block")
+                ? AsyncLogWriter.OverflowPolicy.BLOCK : AsyncLogWriter.OverflowPolicy.DROP;
+        AsyncLogWriter.setDefault(new AsyncLogWriter(conf.getInt("logging.buffer-size", 8192), policy));
+        return new Logger(new AsyncConsoleOut("RedstoneLamp"));
+    }
+
     private void getDefaultResources() throws IOException {
         if(!new File("server.properties").isFile()){
             copyProperties();
@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
@@ -34,8 +36,10 @@ import net.redstonelamp.event.Event;
 import net.redstonelamp.event.EventPlatform;
 import net.redstonelamp.item.Item;
 import net.redstonelamp.language.TranslationManager;
+import net.redstonelamp.level.Chunk;
 import net.redstonelamp.level.Level;
 import net.redstonelamp.level.LevelManager;
+import net.redstonelamp.network.Broadcast;
 import net.redstonelamp.network.NetworkManager;
 import net.redstonelamp.network.Protocol;
 import net.redstonelamp.network.pc.PCProtocol;
@@ -48,6 +52,8 @@ import net.redstonelamp.response.ChatResponse;
 import net.redstonelamp.response.Response;
 import net.redstonelamp.script.ScriptManager;
 import net.redstonelamp.ticker.RedstoneTicker;
+import net.redstonelamp.ticker.TickPhase;
+import net.redstonelamp.ticker.TickWatchdog;
 import net.redstonelamp.ui.Logger;
 import net.redstonelamp.utils.ServerIcon;
 import net.redstonelamp.utils.TextFormat;
@@ -67,6 +73,8 @@ public class Server implements Runnable, CommandSender{
     @Getter private final TranslationManager translationManager;
     private final NetworkManager network;
     private final List<Player> players = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Player> playersBySession = new ConcurrentHashMap<>();
+    private final Map<String, Player> playersByName = new ConcurrentHashMap<>(); //Lowercase names
     private final PluginSystem pluginSystem;
     @Getter private final JavaPluginManager pluginManager;
     @Getter private final ScriptManager scriptManager;
@@ -88,10 +96,16 @@ public class Server implements Runnable, CommandSender{
      * @param serverYamlConfig The server's YAML configuration
      */
     Server(Logger logger, PropertiesConfig config, YamlConfig serverYamlConfig) throws Exception{
+        this.logger = logger; //Before the ticker, which hands it to the console reader
         ticker = new RedstoneTicker(this, 50);
-        this.logger = logger;
         this.config = config;
         yamlConfig = serverYamlConfig;
+        ticker.setCatchUpLimit(serverYamlConfig.getInt("ticker.catch-up-limit", RedstoneTicker.DEFAULT_CATCH_UP_LIMIT));
+        ticker.setAsyncWorkers(serverYamlConfig.getInt("settings.async-workers", RedstoneTicker.DEFAULT_ASYNC_WORKERS));
+        ticker.setSyncBudget(serverYamlConfig.getInt("ticker.sync-budget", RedstoneTicker.DEFAULT_SYNC_BUDGET));
+        for(TickPhase phase : TickPhase.values()){
+            ticker.setPhaseBudget(phase, serverYamlConfig.getInt("ticker.phase-budgets." + phase.getConfigName(), phase.getDefaultBudget()));
+        }
         File favicon = new File("./server-icon");
         serverIcon = (favicon.exists() ? new ServerIcon(favicon) : null);
         network = new NetworkManager(this);
@@ -108,6 +122,7 @@ public class Server implements Runnable, CommandSender{
         network.registerProtocol(new PCProtocol(network));
 
         addShutdownTask(network::shutdown);
+        addShutdownTask(ticker::shutdownAsyncWorkers); // Let running auto-saves finish before the final saves
         
         commandManager = new CommandManager();
         scriptManager = new ScriptManager(this);
@@ -125,7 +140,10 @@ public class Server implements Runnable, CommandSender{
         levelManager = new LevelManager(this);
         levelManager.init();
 
-        ticker.addDelayedRepeatingTask(tick -> levelManager.getLevels().stream().forEach(Level::save), 40, serverYamlConfig.getInt("settings.world-save-interval") * 20);
+        ticker.addDelayedRepeatingTask(tick -> levelManager.getLevels().forEach(level -> {
+            List<Chunk> chunks = level.snapshot(); //Copied on the tick thread, only the write is async
+            ticker.runAsync(() -> level.save(chunks));
+        }), 40, serverYamlConfig.getInt("settings.world-save-interval") * 20);
         addShutdownTask(() -> {
             logger.info("Saving levels...");
             levelManager.getLevels().stream().forEach(Level::save);
@@ -140,7 +158,7 @@ public class Server implements Runnable, CommandSender{
             playerDatabase.loadFrom(new File("players.dat"));
             ticker.addDelayedRepeatingTask(tick -> {
                 try{
-                    playerDatabase.saveTo(new File("players.dat"));
+                    playerDatabase.saveTo(new File("players.dat")); //Synchronous, the entries are changed on the tick thread
                 }catch(IOException e){
                     logger.warning("Exception while auto-saving PlayerDatabase: " + e.getClass().getName() + ": " + e.getMessage());
                 }
@@ -172,6 +190,11 @@ public class Server implements Runnable, CommandSender{
     @Override
     public void run(){
         logger.info(RedstoneLamp.SOFTWARE + " is now running.");
+        int stallThreshold = yamlConfig.getInt("ticker.watchdog.stall-threshold", 0);
+        if(stallThreshold > 0){
+            ticker.setWatchdog(new TickWatchdog(ticker, logger, stallThreshold, yamlConfig.getInt("ticker.watchdog.hard-limit", 10000),
+                    yamlConfig.getBoolean("ticker.watchdog.dump-threads", false)));
+        }
         ticker.start();
     }
 
@@ -190,14 +213,16 @@ public class Server implements Runnable, CommandSender{
      * INTERNAL METHOD
      *
      * @param address
+     * @param sessionId
      * @param protocol
      * @param loginRequest
      * @return
      */
-    public Player openSession(SocketAddress address, Protocol protocol, LoginRequest loginRequest){
-        logger.debug("Opened Session: " + address.toString());
-        Player player = new Player(protocol, loginRequest.userAgent, address);
+    public Player openSession(SocketAddress address, int sessionId, Protocol protocol, LoginRequest loginRequest){
+        logger.debug("Opened Session: " + address.toString() + " (" + sessionId + ")");
+        Player player = new Player(protocol, loginRequest.userAgent, address, sessionId);
         players.add(player);
+        playersBySession.put(sessionId, player);
         network.setName(motd); //Update the amount of players online
         return player;
     }
@@ -210,9 +235,25 @@ public class Server implements Runnable, CommandSender{
     public void closeSession(Player player){
         logger.debug("Closed Session: " + player.getAddress().toString());
         players.remove(player);
+        playersBySession.remove(player.getSessionId(), player);
+        if(player.getName() != null){
+            playersByName.remove(player.getName().toLowerCase(), player);
+        }
         network.setName(motd); //Update the amount of players online
     }
 
+    /**
+     * INTERNAL METHOD!
+     * Add <code>player</code> to the name index, called when the player's name is known.
+     *
+     * @param player
+     */
+    public void indexPlayerName(Player player){
+        if(player.isConnected()){
+            playersByName.put(player.getName().toLowerCase(), player);
+        }
+    }
+
     /**
      * Broadcasts a response to ALL players on the server. Please use API methods if
      * available.
@@ -220,8 +261,9 @@ public class Server implements Runnable, CommandSender{
      * @param r The Request to be broadcasted
      */
     public void broadcastResponse(Response r){
+        Broadcast broadcast = new Broadcast(r);
         for(Player player : players){
-            player.sendResponse(r);
+            broadcast.sendTo(player);
         }
     }
 
@@ -233,7 +275,8 @@ public class Server implements Runnable, CommandSender{
      * @param r       The Response to be broadcasted.
      */
     public void broadcastResponse(Stream<Player> players, Response r){
-        players.forEach(player -> player.sendResponse(r));
+        Broadcast broadcast = new Broadcast(r);
+        players.forEach(broadcast::sendTo);
     }
 
     /**
@@ -244,13 +287,15 @@ public class Server implements Runnable, CommandSender{
      * @param responses The responses to be broadcasted.
      */
     public void broadcastResponses(Response[] responses){
-        players.forEach(player -> player.getProtocol().sendQueuedResponses(responses, player));
+        Broadcast broadcast = new Broadcast(responses);
+        players.forEach(broadcast::sendTo);
     }
 
     public void broadcastMessage(String message){
         logger.info("[Chat]: " + TextFormat.stripColors(message));
+        Broadcast broadcast = new Broadcast(new ChatResponse(message));
         for(Player player : players){
-            player.sendMessage(message);
+            broadcast.sendTo(player);
         }
     }
 
@@ -258,8 +303,9 @@ public class Server implements Runnable, CommandSender{
         logger.info("[Chat]: " + TextFormat.stripColors(translationManager.translateServerSide(new ChatResponse.ChatTranslation(translation.message, translation.params)).toString()));
         ChatResponse cr = new ChatResponse(translation.message);
         cr.translation = translation;
+        Broadcast broadcast = new Broadcast(cr);
         for(Player player : players){
-            player.sendResponse(cr);
+            broadcast.sendTo(player);
         }
     }
 
@@ -292,21 +338,27 @@ public class Server implements Runnable, CommandSender{
      * @return The Player, if found, null if not
      */
     public Player getPlayer(SocketAddress address){
-        for(Player player : players){
-            if(player.getAddress().toString().equals(address.toString())){
-                return player;
-            }
-        }
-        return null;
+        return getPlayer(network.getSessions().getId(address));
     }
-    
+
+    /**
+     * Get a Player by the id of the session they are connected in.
+     *
+     * @param sessionId The session id, as given by the NetworkManager's <code>SessionRegistry</code>
+     * @return The Player, if found, null if not
+     */
+    public Player getPlayer(int sessionId){
+        return playersBySession.get(sessionId);
+    }
+
+    /**
+     * Get a Player by their name, ignoring case.
+     *
+     * @param name The name of the player
+     * @return The Player, if found, null if not
+     */
     public Player getPlayer(String name){
-    	for(Player player : players){
-    		if(player.getName().equals(name)) {
-    			return player;
-    		}
-    	}
-    	return null;
+        return playersByName.get(name.toLowerCase());
     }
 
     /**
@@ -334,6 +386,10 @@ public class Server implements Runnable, CommandSender{
         return config;
     }
 
+    public NetworkManager getNetworkManager(){
+        return network;
+    }
+
     public LevelManager getLevelManager(){
         return levelManager;
     }
@@ -351,6 +407,17 @@ public class Server implements Runnable, CommandSender{
     	this.callEvent(EventPlatform.BOTH, event);
     }
 
+    /**
+     * Check if any plugin listens to events of <code>type</code>. Events nobody listens to don't have to be created
+     * or called; this is used to skip the packet events.
+     *
+     * @param type The class of the event
+     * @return If there are listeners for the event
+     */
+    public boolean hasListeners(Class<? extends Event> type){
+        return pluginSystem != null && pluginSystem.hasListeners(type);
+    }
+
     protected int getNextEntityID(){
         return nextEntityID++;
     }
@@ -385,6 +452,7 @@ public class Server implements Runnable, CommandSender{
             }
             System.out.println("Running shutdown tasks.");
             server.shutdownTasks.forEach(Runnable::run);
+            server.getLogger().flush();
             System.out.println("Halting...");
         }
     }
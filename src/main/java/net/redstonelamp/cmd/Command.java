@@ -43,6 +43,9 @@ public class Command {
 		registerCommand(new Command("kick", "/kick (player) [reason]", "Kicks a player with the specified reason", new KickCommand(), true));
 		registerCommand(new Command("permission", "/permission (permission) [player]", "See's if a player has a permission", new PermissionTest(), true));
 		registerCommand(new Command("help", "/help", "View a list of all commands", new HelpCommand(), false));
+	    registerCommand(new Command("tps", "/tps", "Shows the server's TPS and tick times", new TpsCommand(), false));
+	    registerCommand(new Command("timings", "/timings (on|off|report|reset)", "Profiles what the server spends its time on", new TimingsCommand(), false));
+	    registerCommand(new Command("netstats", "/netstats [reset]", "Shows the network traffic and queues of each protocol", new NetStatsCommand(), false));
 	    registerCommand(new Command("version", "/version", "Shows the version of this server", new VersionCommand(), false));
 		registerCommand(new Command("reload", "/reload", "Reloads all the server data and plugins", new ReloadCommand(), false));
 	    registerCommand(new Command("stop", "/stop", "Stops the server", new StopCommand(), false));
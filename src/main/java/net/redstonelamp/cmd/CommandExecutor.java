@@ -18,4 +18,14 @@ package net.redstonelamp.cmd;
 
 public interface CommandExecutor {
     public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args);
+
+    /**
+     * Get if this executor may be ran off the ticker thread when invoked from the console.
+     * Only return true if the command does not modify levels, players or other server state.
+     *
+     * @return If this executor is async-safe, false by default.
+     */
+    default boolean isAsyncSafe() {
+        return false;
+    }
 }
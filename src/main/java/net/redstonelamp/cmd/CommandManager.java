@@ -38,6 +38,18 @@ public class CommandManager {
         }
     }
 	
+	/**
+	 * Get the <code>Command</code> a command line would execute.
+	 *
+	 * @param cmd The command line, with or without leading slash
+	 * @return The matching Command, or null if there is none
+	 */
+	public Command findCommand(String cmd) {
+		if(cmd.startsWith("/"))
+			cmd = cmd.substring(1);
+		return Command.getByLabel(cmd.split(" ")[0]);
+	}
+	
 	public Command[] getCommands() {
 		return Command.getCommands();
 	}
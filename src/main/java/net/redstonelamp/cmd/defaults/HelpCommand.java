@@ -25,6 +25,11 @@ import net.redstonelamp.response.ChatResponse;
 import net.redstonelamp.utils.TextFormat;
 
 public class HelpCommand implements CommandExecutor {
+	@Override
+	public boolean isAsyncSafe() {
+		return true;
+	}
+
 	@Override
 	public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
 		if(label.equalsIgnoreCase("help")) {
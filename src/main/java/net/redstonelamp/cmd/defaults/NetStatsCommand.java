@@ -0,0 +1,94 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.cmd.defaults;
+
+import net.redstonelamp.RedstoneLamp;
+import net.redstonelamp.cmd.Command;
+import net.redstonelamp.cmd.CommandExecutor;
+import net.redstonelamp.cmd.CommandSender;
+import net.redstonelamp.network.NetworkStatistics;
+import net.redstonelamp.network.Protocol;
+import net.redstonelamp.network.pe.PEProtocol;
+import net.redstonelamp.network.pe.sub.PESubprotocolManager;
+import net.redstonelamp.utils.CompressionUtils;
+import net.redstonelamp.utils.TextFormat;
+
+/**
+ * /netstats command implementation. Shows the packet and byte counters, rates, decode/encode times, packet sizes
+ * and queues of every protocol, the PE chunk cache hits and misses, and the packet ids using the most bytes. The same statistics are available
+ * through JMX.
+ *
+ * @author RedstoneLamp Team
+ */
+public class NetStatsCommand implements CommandExecutor {
+    private static final int TOP_PACKETS = 5;
+
+    @Override
+    public boolean isAsyncSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if(!label.equalsIgnoreCase("netstats")) {
+            return false;
+        }
+        if(args.length == 1 && args[0].equalsIgnoreCase("reset")) {
+            RedstoneLamp.SERVER.getNetworkManager().getProtocols().forEach(protocol -> protocol.getStatistics().reset());
+            sender.sendMessage(TextFormat.GOLD + "Network statistics reset.");
+            return true;
+        }
+        if(args.length != 0) {
+            return false;
+        }
+        for(Protocol protocol : RedstoneLamp.SERVER.getNetworkManager().getProtocols()) {
+            NetworkStatistics stats = protocol.getStatistics();
+            sender.sendMessage(TextFormat.GOLD + String.format("%s: in %d packets (%d/s), %s (%s/s); out %d packets (%d/s), %s (%s/s)",
+                    protocol.getName(), stats.getPacketsIn(), stats.getPacketsInPerSecond(), bytes(stats.getBytesIn()), bytes(stats.getBytesInPerSecond()),
+                    stats.getPacketsOut(), stats.getPacketsOutPerSecond(), bytes(stats.getBytesOut()), bytes(stats.getBytesOutPerSecond())));
+            sender.sendMessage(TextFormat.YELLOW + String.format("Decode: avg %.1fus, p99 %dus; encode: avg %.1fus, p99 %dus",
+                    stats.getMeanDecodeMicros(), stats.getP99DecodeMicros(), stats.getMeanEncodeMicros(), stats.getP99EncodeMicros()));
+            sender.sendMessage(TextFormat.YELLOW + String.format("Packet size in: avg %.0fB, p99 %dB; out: avg %.0fB, p99 %dB",
+                    stats.getMeanPacketSizeIn(), stats.getPacketSizeIn().getPercentile(99), stats.getMeanPacketSizeOut(), stats.getPacketSizeOut().getPercentile(99)));
+            sender.sendMessage(TextFormat.YELLOW + String.format("Queues: inbound %d, outbound %d, backlog %s, congested %d, merged %d, slow disconnects %d",
+                    stats.getInboundQueueDepth(), stats.getOutboundQueueDepth(), bytes(stats.getOutboundBacklog()), stats.getCongestedSessions(),
+                    protocol.getMergedResponses(), protocol.getSlowClientDisconnects()));
+            if(protocol instanceof PEProtocol) {
+                PESubprotocolManager subprotocols = ((PEProtocol) protocol).getSubprotocols();
+                sender.sendMessage(TextFormat.YELLOW + String.format("Chunk cache: %d hits, %d misses", subprotocols.getChunkCacheHits(), subprotocols.getChunkCacheMisses()));
+            }
+            for(int id : stats.getTopPacketIds(true, TOP_PACKETS)) {
+                sender.sendMessage(TextFormat.YELLOW + String.format("  in 0x%02x: %d packets, %s", id, stats.getPackets(true, id), bytes(stats.getBytes(true, id))));
+            }
+            for(int id : stats.getTopPacketIds(false, TOP_PACKETS)) {
+                sender.sendMessage(TextFormat.YELLOW + String.format("  out 0x%02x: %d packets, %s", id, stats.getPackets(false, id), bytes(stats.getBytes(false, id))));
+            }
+        }
+        sender.sendMessage(TextFormat.GOLD + String.format("Compression ratio: %.2f", CompressionUtils.getCompressionRatio()));
+        return true;
+    }
+
+    private static String bytes(long bytes) {
+        if(bytes < 1024) {
+            return bytes + "B";
+        }
+        if(bytes < 1024 * 1024) {
+            return String.format("%.1fKiB", bytes / 1024.0);
+        }
+        return String.format("%.1fMiB", bytes / (1024.0 * 1024.0));
+    }
+}
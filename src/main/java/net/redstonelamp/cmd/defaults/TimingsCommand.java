@@ -0,0 +1,98 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.cmd.defaults;
+
+import net.redstonelamp.cmd.Command;
+import net.redstonelamp.cmd.CommandExecutor;
+import net.redstonelamp.cmd.CommandSender;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
+import net.redstonelamp.utils.TextFormat;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * /timings command implementation. Turns the timings profiler on or off, resets it, or prints a report of the
+ * most expensive sources and writes all timings as JSON to the <code>timings</code> directory.
+ *
+ * @author RedstoneLamp Team
+ */
+public class TimingsCommand implements CommandExecutor {
+    private static final int REPORT_LINES = 15;
+
+    @Override
+    public boolean isAsyncSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if(!label.equalsIgnoreCase("timings") || args.length != 1) {
+            return false;
+        }
+        switch(args[0].toLowerCase()) {
+            case "on":
+                Timings.setEnabled(true);
+                sender.sendMessage(TextFormat.GOLD + "Timings enabled and reset.");
+                return true;
+            case "off":
+                Timings.setEnabled(false);
+                sender.sendMessage(TextFormat.GOLD + "Timings disabled.");
+                return true;
+            case "reset":
+                Timings.reset();
+                sender.sendMessage(TextFormat.GOLD + "Timings reset.");
+                return true;
+            case "report":
+                report(sender);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void report(CommandSender sender) {
+        if(!Timings.isEnabled()) {
+            sender.sendMessage(TextFormat.RED + "Timings are disabled, use \"/timings on\" first.");
+            return;
+        }
+        List<Timing> timings = Timings.getSorted();
+        sender.sendMessage(TextFormat.GOLD + "Timings over the last " + Timings.getPeriodSeconds() + "s (" + timings.size() + " sources):");
+        for(int i = 0; i < timings.size() && i < REPORT_LINES; i++) {
+            sender.sendMessage(TextFormat.YELLOW + Timings.format(timings.get(i)));
+        }
+        File dir = new File("timings");
+        File file = new File(dir, "timings-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        try {
+            if(!dir.isDirectory()) {
+                dir.mkdirs();
+            }
+            try(Writer writer = new FileWriter(file)) {
+                Timings.toJSON().writeJSONString(writer);
+            }
+            sender.sendMessage(TextFormat.GOLD + "Full report written to " + file.getPath());
+        } catch(IOException e) {
+            sender.sendMessage(TextFormat.RED + "Failed to write the timings report: " + e.getMessage());
+        }
+    }
+}
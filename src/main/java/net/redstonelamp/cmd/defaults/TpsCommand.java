@@ -0,0 +1,75 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.cmd.defaults;
+
+import net.redstonelamp.RedstoneLamp;
+import net.redstonelamp.cmd.Command;
+import net.redstonelamp.cmd.CommandExecutor;
+import net.redstonelamp.cmd.CommandSender;
+import net.redstonelamp.network.Protocol;
+import net.redstonelamp.ticker.BoundTask;
+import net.redstonelamp.ticker.RedstoneTicker;
+import net.redstonelamp.ticker.TickPhase;
+import net.redstonelamp.ticker.TickStatistics;
+import net.redstonelamp.utils.TextFormat;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * /tps command implementation. Shows the real TPS and tick duration percentiles of the ticker,
+ * followed by the time spent in each tick phase, the inbound queues and the time spent in each bound task.
+ *
+ * @author RedstoneLamp Team
+ */
+public class TpsCommand implements CommandExecutor {
+
+    @Override
+    public boolean isAsyncSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if(label.equalsIgnoreCase("tps")) {
+            TickStatistics stats = RedstoneLamp.SERVER.getTicker().getStatistics();
+            sender.sendMessage(TextFormat.GOLD + stats.summary());
+            sender.sendMessage(TextFormat.GOLD + "Ticks ran: " + stats.getTotalTicks() + ", skipped: " + stats.getSkippedTicks());
+            RedstoneTicker ticker = RedstoneLamp.SERVER.getTicker();
+            long ticks = Math.max(1, stats.getTotalTicks());
+            for(TickPhase phase : TickPhase.values()) {
+                sender.sendMessage(TextFormat.YELLOW + String.format("Phase %s: avg %.3fms, max %.3fms, budget %dms, overruns %d",
+                        phase.getConfigName(), ticker.getPhaseTotalNanos(phase) / 1e6 / ticks, ticker.getPhaseMaxNanos(phase) / 1e6,
+                        ticker.getPhaseBudget(phase) / 1000000L, ticker.getPhaseOverruns(phase)));
+            }
+            for(Protocol protocol : RedstoneLamp.SERVER.getNetworkManager().getProtocols()) {
+                sender.sendMessage(TextFormat.YELLOW + String.format("%s inbound queue: %d (peak %d, fullest session %d), dropped %d",
+                        protocol.getName(), protocol.getInboundQueueDepth(), protocol.getPeakInboundQueueDepth(),
+                        protocol.getMaxSessionQueueDepth(), protocol.getDroppedRequests()));
+            }
+            List<BoundTask> tasks = ticker.getBoundTasks();
+            tasks.sort(Comparator.comparingLong(BoundTask::getTotalNanos).reversed());
+            for(BoundTask task : tasks) {
+                if(task.getRuns() == 0) continue;
+                sender.sendMessage(TextFormat.YELLOW + String.format("%s: avg %.3fms, max %.3fms, total %.1fs",
+                        task.getName(), task.getTotalNanos() / 1e6 / task.getRuns(), task.getMaxNanos() / 1e6, task.getTotalNanos() / 1e9));
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -34,6 +34,11 @@ import org.apache.logging.log4j.core.pattern.AbstractStyleNameConverter;
  */
 public class VersionCommand implements CommandExecutor {
 
+    @Override
+    public boolean isAsyncSafe() {
+        return true;
+    }
+
     @Override
     public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
         if(label.equalsIgnoreCase("version")) {
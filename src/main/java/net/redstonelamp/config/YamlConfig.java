@@ -126,6 +126,41 @@ public class YamlConfig{
         return Integer.parseInt(getString(path));
     }
 
+    /**
+     * Gets an integer from the configuration, or <code>def</code> if the value is not present
+     * (for example in configuration files generated by older versions).
+     *
+     * @param path The Path of the value
+     * @param def  The value returned if the path is not found
+     * @return The value as an integer if found, <code>def</code> if not.
+     */
+    public int getInt(String path, int def){
+        Object value = get(path);
+        if(value == null){
+            return def;
+        }
+        try{
+            return Integer.parseInt(value.toString().trim());
+        }catch(NumberFormatException e){
+            return def;
+        }
+    }
+
+    /**
+     * Gets a boolean from the configuration, or <code>def</code> if the value is not present.
+     *
+     * @param path The Path of the value
+     * @param def  The value returned if the path is not found
+     * @return The value as a boolean if found, <code>def</code> if not.
+     */
+    public boolean getBoolean(String path, boolean def){
+        Object value = get(path);
+        if(value == null){
+            return def;
+        }
+        return Boolean.parseBoolean(value.toString().trim());
+    }
+
     /**
      * Returns a Map of the YAML file
      *
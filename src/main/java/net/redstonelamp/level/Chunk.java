@@ -16,6 +16,8 @@
  */
 package net.redstonelamp.level;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a 16 * 16 * 128 chunk section.
  *
@@ -24,6 +26,7 @@ package net.redstonelamp.level;
 public class Chunk{
 
     private final ChunkPosition position;
+    private final AtomicInteger version = new AtomicInteger();
 
     private byte[] blockIds;
     private byte[] blockMeta;
@@ -75,11 +78,29 @@ public class Chunk{
         return blockIds;
     }
 
-    public void setBlockId(byte id, int x, int y, int z){
+    /**
+     * Get the modification version of this chunk. It changes every time the chunk's data is modified, so data derived
+     * from the chunk (e.g. encoded chunk packets) can be cached until the version changes.
+     *
+     * @return The modification version
+     */
+    public int getVersion(){
+        return version.get();
+    }
+
+    /**
+     * Mark the chunk as modified, changing its version. The setters of this class do this already.
+     */
+    public void markModified(){
+        version.incrementAndGet();
+    }
+
+    public synchronized void setBlockId(byte id, int x, int y, int z){
         blockIds[x << 11 | z << 7 | y] = id;
+        markModified();
     }
 
-    public void setBlockMeta(byte meta, int x, int y, int z){
+    public synchronized void setBlockMeta(byte meta, int x, int y, int z){
         int location = x << 10 | z << 6 | y >> 1;
         byte oldMeta = blockMeta[location];
         if((y & 1) == 0){
@@ -87,40 +108,64 @@ public class Chunk{
         }else{
             blockMeta[location] = (byte) ((meta & 0x0f) << 4 | oldMeta & 0x0f);
         }
+        markModified();
     }
 
-    public void setBlockIds(byte[] blockIds){
+    public synchronized void setBlockIds(byte[] blockIds){
         this.blockIds = blockIds;
+        markModified();
     }
 
-    public void setBlockMeta(byte[] blockMeta){
+    public synchronized void setBlockMeta(byte[] blockMeta){
         this.blockMeta = blockMeta;
+        markModified();
     }
 
-    public void setSkylight(byte[] skylight){
+    public synchronized void setSkylight(byte[] skylight){
         this.skylight = skylight;
+        markModified();
     }
 
-    public void setBlocklight(byte[] blocklight){
+    public synchronized void setBlocklight(byte[] blocklight){
         this.blocklight = blocklight;
+        markModified();
     }
 
-    public void setHeightmap(byte[] heightmap){
+    public synchronized void setHeightmap(byte[] heightmap){
         this.heightmap = heightmap;
+        markModified();
     }
 
-    public void setBiomeColors(byte[] biomeColors){
+    public synchronized void setBiomeColors(byte[] biomeColors){
         this.biomeColors = biomeColors;
+        markModified();
     }
 
-    public void setExtraData(byte[] extraData){
+    public synchronized void setExtraData(byte[] extraData){
         this.extraData = extraData;
+        markModified();
     }
 
     public ChunkPosition getPosition(){
         return position;
     }
 
+    /**
+     * Create a copy of this chunk's data, which is not changed by later modifications of this chunk. Used to write the
+     * chunk on another thread while it is still being modified.
+     *
+     * @return The copy
+     */
+    public synchronized Chunk copy(){
+        Chunk copy = new Chunk(position, copyOf(blockIds), copyOf(blockMeta), copyOf(skylight), copyOf(blocklight), copyOf(heightmap), copyOf(biomeColors));
+        copy.extraData = copyOf(extraData);
+        return copy;
+    }
+
+    private static byte[] copyOf(byte[] array){
+        return array != null ? array.clone() : null;
+    }
+
     public byte getBlockId(int x, int y, int z){
         return blockIds[x << 11 | z << 7 | y];
     }
@@ -30,6 +30,8 @@ import net.redstonelamp.level.provider.LevelProvider;
 import net.redstonelamp.math.Vector3;
 import net.redstonelamp.response.BlockPlaceResponse;
 import net.redstonelamp.response.RemoveBlockResponse;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
 import org.apache.commons.io.FileUtils;
 
 import java.io.BufferedReader;
@@ -51,6 +53,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * @author RedstoneLamp Team
  */
 public class Level{
+    private static final Timing GET_CHUNK_TIMING = Timings.of("LevelProvider getChunk");
+    private static final Timing PUT_CHUNK_TIMING = Timings.of("LevelProvider putChunk");
     private final LevelManager manager;
     private final EntityManager entityManager;
     private List<Chunk> loadedChunks = new CopyOnWriteArrayList<>();
@@ -151,7 +155,7 @@ public class Level{
                 return c;
             }
         }
-        Chunk c = provider.getChunk(position);
+        Chunk c = readChunk(position);
         loadedChunks.add(c);
         return c;
     }
@@ -162,20 +166,62 @@ public class Level{
                 throw new IllegalArgumentException("Chunk " + position + " already loaded!");
             }
         }
-        Chunk c = provider.getChunk(position);
+        Chunk c = readChunk(position);
         loadedChunks.add(c);
     }
 
     public void unloadChunk(ChunkPosition position){
         loadedChunks.stream().filter(c -> c.getPosition().equals(position)).forEach(chunk -> {
-            provider.putChunk(position, chunk);
+            writeChunk(position, chunk);
             loadedChunks.remove(chunk);
         });
     }
 
     public void save(){
+        save(snapshot());
+    }
+
+    /**
+     * Copy the loaded chunks of this level, so they can be written by <code>save(chunks)</code> on another thread
+     * while the level keeps changing. Must be called on the tick thread.
+     *
+     * @return Copies of the loaded chunks
+     */
+    public List<Chunk> snapshot(){
+        List<Chunk> chunks = new ArrayList<>(loadedChunks.size());
         for(Chunk c : loadedChunks){
-            provider.putChunk(c.getPosition(), c);
+            chunks.add(c.copy());
+        }
+        return chunks;
+    }
+
+    /**
+     * Write chunks to the level provider. This method is thread-safe if the chunks are not modified while they are
+     * written, see <code>snapshot()</code>.
+     *
+     * @param chunks The chunks to be written
+     */
+    public void save(List<Chunk> chunks){
+        for(Chunk c : chunks){
+            writeChunk(c.getPosition(), c);
+        }
+    }
+
+    private Chunk readChunk(ChunkPosition position){
+        long start = GET_CHUNK_TIMING.start();
+        try{
+            return provider.getChunk(position);
+        }finally{
+            GET_CHUNK_TIMING.stop(start);
+        }
+    }
+
+    private void writeChunk(ChunkPosition position, Chunk chunk){
+        long start = PUT_CHUNK_TIMING.start();
+        try{
+            provider.putChunk(position, chunk);
+        }finally{
+            PUT_CHUNK_TIMING.stop(start);
         }
     }
 
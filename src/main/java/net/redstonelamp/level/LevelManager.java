@@ -21,7 +21,8 @@ import net.redstonelamp.level.generator.FlatGenerator;
 import net.redstonelamp.level.generator.Generator;
 import net.redstonelamp.level.provider.LevelProvider;
 import net.redstonelamp.level.provider.leveldb.LevelDBProvider;
-import net.redstonelamp.ticker.CallableTask;
+import net.redstonelamp.ticker.BoundTask;
+import net.redstonelamp.ticker.TickPhase;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
@@ -52,7 +53,7 @@ public class LevelManager{
      * Used in Server to initialize the LevelManager class.
      */
     public void init(){
-        server.getTicker().addRepeatingTask(new CallableTask("tick", this), 1);
+        server.getTicker().addPhaseTask(TickPhase.BLOCK_FLUSH, new BoundTask("LevelManager", this::tick));
         try{
             registerProvider("leveldb", LevelDBProvider.class);
             registerGenerator("flat", FlatGenerator.class);
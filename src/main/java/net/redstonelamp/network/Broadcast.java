@@ -0,0 +1,89 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import net.redstonelamp.Player;
+import net.redstonelamp.response.Response;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A response (or a group of responses) sent to many players, encoded only once for every distinct encoding:
+ * every protocol, or subprotocol for protocols that have them. All recipients sharing an encoding are sent the same
+ * payload.
+ * <br>
+ * A Broadcast is meant to be filled by one thread: create it, call <code>sendTo()</code> for every recipient and
+ * drop it. Responses that cannot be shared are sent to each player on its own.
+ *
+ * @author RedstoneLamp Team
+ */
+public class Broadcast{
+    private final Response[] responses;
+    private final Map<Object, SharedEncoding> encodings = new HashMap<>();
+
+    /**
+     * Create a new Broadcast of <code>response</code>
+     *
+     * @param response The response to be broadcasted.
+     */
+    public Broadcast(Response response){
+        this(new Response[]{response});
+    }
+
+    /**
+     * Create a new Broadcast of <code>responses</code>, which are combined into one or more packets if the
+     * protocol supports it.
+     *
+     * @param responses The responses to be broadcasted.
+     */
+    public Broadcast(Response[] responses){
+        this.responses = responses;
+    }
+
+    /**
+     * Send the broadcasted responses to <code>player</code>, sharing the encoding with the previous recipients if
+     * possible.
+     *
+     * @param player The player they are to be sent to.
+     */
+    public void sendTo(Player player){
+        if(responses.length == 0){
+            return;
+        }
+        Protocol protocol = player.getProtocol();
+        Object key = protocol.getEncodingKey(responses[0], player);
+        if(key == null){
+            if(responses.length == 1){
+                protocol.sendResponse(responses[0], player);
+            }else{
+                protocol.sendQueuedResponses(responses, player);
+            }
+            return;
+        }
+        protocol.queueShared(encodings.computeIfAbsent(key, k -> new SharedEncoding(protocol, responses)), player);
+    }
+
+    /**
+     * Get the responses of this broadcast.
+     *
+     * @return The broadcasted responses.
+     */
+    public Response[] getResponses(){
+        return responses;
+    }
+}
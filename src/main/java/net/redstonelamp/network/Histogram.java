@@ -0,0 +1,119 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values with power of two buckets: bucket <code>n</code> counts the values below
+ * <code>2^n</code> that did not fit in bucket <code>n - 1</code>. Percentiles are reported as the upper bound of
+ * their bucket, so they are accurate within a factor of two.
+ * This class is thread-safe.
+ *
+ * @author RedstoneLamp Team
+ */
+public class Histogram{
+    private final LongAdder[] buckets = new LongAdder[64];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(){
+        for(int i = 0; i < buckets.length; i++){
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value The value, negative values are recorded as 0.
+     */
+    public void record(long value){
+        value = Math.max(0, value);
+        buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        sum.add(value);
+        long m;
+        while(value > (m = max.get()) && !max.compareAndSet(m, value)){
+            // Retry
+        }
+    }
+
+    /**
+     * Get the amount of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount(){
+        return count.sum();
+    }
+
+    /**
+     * Get the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double getMean(){
+        long c = count.sum();
+        return c == 0 ? 0 : (double) sum.sum() / c;
+    }
+
+    /**
+     * Get the largest recorded value.
+     *
+     * @return The maximum.
+     */
+    public long getMax(){
+        return max.get();
+    }
+
+    /**
+     * Get the upper bound of the bucket containing the <code>percentile</code>th percentile.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The approximated percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile){
+        long total = count.sum();
+        if(total == 0){
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for(int i = 0; i < buckets.length; i++){
+            seen += buckets[i].sum();
+            if(seen >= rank){
+                return i == 0 ? 0 : Math.min(max.get(), (1L << i) - 1);
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clear all recorded values.
+     */
+    public void reset(){
+        for(LongAdder bucket : buckets){
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
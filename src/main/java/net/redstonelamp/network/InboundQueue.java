@@ -0,0 +1,88 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import net.redstonelamp.request.Request;
+
+import java.net.SocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The queue of received requests of one session. Requests are added by the network threads and polled by the
+ * ticker thread.
+ * <br>
+ * A queue is in its protocol's ready list while it has requests; <code>scheduled</code> makes sure it is only
+ * in there once.
+ *
+ * @author RedstoneLamp Team
+ */
+public class InboundQueue{
+    private final int sessionId;
+    private final SocketAddress address;
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    final AtomicBoolean scheduled = new AtomicBoolean();
+
+    InboundQueue(int sessionId, SocketAddress address){
+        this.sessionId = sessionId;
+        this.address = address;
+    }
+
+    boolean add(Request request){
+        requests.add(request);
+        size.incrementAndGet();
+        return scheduled.compareAndSet(false, true);
+    }
+
+    Request poll(){
+        Request request = requests.poll();
+        if(request != null){
+            size.decrementAndGet();
+        }
+        return request;
+    }
+
+    /**
+     * Get the id of the session this queue belongs to.
+     *
+     * @return The session id.
+     */
+    public int getSessionId(){
+        return sessionId;
+    }
+
+    /**
+     * Get the address of the session this queue belongs to.
+     *
+     * @return The session's address.
+     */
+    public SocketAddress getAddress(){
+        return address;
+    }
+
+    /**
+     * Get the amount of requests waiting in this queue.
+     *
+     * @return The queue depth.
+     */
+    public int size(){
+        return size.get();
+    }
+}
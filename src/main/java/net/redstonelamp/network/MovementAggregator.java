@@ -0,0 +1,163 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import net.redstonelamp.Player;
+import net.redstonelamp.Server;
+import net.redstonelamp.level.position.Position;
+import net.redstonelamp.response.PlayerMoveResponse;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects the movements of players during a tick and broadcasts at most one update per player at the end of it,
+ * instead of one for every move packet received. An update is only broadcasted if the player moved or turned more
+ * than the configured thresholds since the last broadcasted one, changed level, or landed or left the ground.
+ * A movement under the thresholds is kept, and broadcasted as a final update once the player stops moving for a tick,
+ * so the other players see where the player actually stopped.
+ * <br>
+ * Movements may be recorded from any thread. They are broadcasted in the <code>BLOCK_FLUSH</code> phase, before the
+ * responses of the tick are flushed.
+ *
+ * @author RedstoneLamp Team
+ */
+public class MovementAggregator{
+    private final NetworkManager manager;
+    private final float distanceSquared;
+    private final float rotation;
+    private final Map<Player, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong broadcasted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    /**
+     * Create a new <code>MovementAggregator</code>
+     *
+     * @param manager           The NetworkManager this aggregator belongs to
+     * @param threshold         The distance a player must move before it is broadcasted, in hundredths of a block
+     * @param rotationThreshold The angle a player must turn before it is broadcasted, in degrees
+     */
+    public MovementAggregator(NetworkManager manager, int threshold, int rotationThreshold){
+        this.manager = manager;
+        float distance = threshold / 100f;
+        distanceSquared = distance * distance;
+        rotation = rotationThreshold;
+    }
+
+    /**
+     * Record the movement of a player, replacing the movement recorded earlier in this tick.
+     *
+     * @param player The player that moved
+     * @param move   The movement to be broadcasted to the other players
+     */
+    public void record(Player player, PlayerMoveResponse move){
+        entries.computeIfAbsent(player, p -> new Entry()).pending.set(move);
+        recorded.incrementAndGet();
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Broadcast the last movement of every player that moved this tick, and the kept movement of every player that
+     * stopped moving. Called by the ticker.
+     *
+     * @param tick The current tick
+     */
+    public void flush(long tick){
+        Server server = manager.getServer();
+        for(Iterator<Map.Entry<Player, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ){
+            Map.Entry<Player, Entry> e = it.next();
+            Player player = e.getKey();
+            if(!player.isConnected()){
+                it.remove();
+                continue;
+            }
+            Entry entry = e.getValue();
+            PlayerMoveResponse move = entry.pending.getAndSet(null);
+            if(move == null){
+                if(entry.settle == null){
+                    continue;
+                }
+                move = entry.settle; //The player stopped moving, send where it stopped
+            }else if(entry.sent != null && !hasChanged(entry.sent, move)){
+                entry.settle = move;
+                skipped.incrementAndGet();
+                continue;
+            }
+            entry.sent = move;
+            entry.settle = null;
+            server.broadcastResponse(server.getPlayers().stream().filter(p -> p != player), move);
+            broadcasted.incrementAndGet();
+        }
+    }
+
+    private boolean hasChanged(PlayerMoveResponse sent, PlayerMoveResponse move){
+        Position from = sent.pos;
+        Position to = move.pos;
+        if(sent.onGround != move.onGround || from.getLevel() != to.getLevel()){
+            return true;
+        }
+        float dx = to.getX() - from.getX();
+        float dy = to.getY() - from.getY();
+        float dz = to.getZ() - from.getZ();
+        if((dx * dx) + (dy * dy) + (dz * dz) > distanceSquared){
+            return true;
+        }
+        return angle(to.getYaw() - from.getYaw()) > rotation || angle(to.getPitch() - from.getPitch()) > rotation;
+    }
+
+    private static float angle(float delta){
+        float angle = Math.abs(delta) % 360f;
+        return angle > 180f ? 360f - angle : angle;
+    }
+
+    /**
+     * Get the amount of movements recorded since the server started
+     *
+     * @return The amount of recorded movements
+     */
+    public long getRecorded(){
+        return recorded.get();
+    }
+
+    /**
+     * Get the amount of movement updates broadcasted since the server started
+     *
+     * @return The amount of broadcasted updates
+     */
+    public long getBroadcasted(){
+        return broadcasted.get();
+    }
+
+    /**
+     * Get the amount of movements that were not broadcasted right away because they were under the thresholds
+     *
+     * @return The amount of skipped movements
+     */
+    public long getSkipped(){
+        return skipped.get();
+    }
+
+    private static class Entry{
+        private final AtomicReference<PlayerMoveResponse> pending = new AtomicReference<>();
+        private PlayerMoveResponse sent; //Only used by flush()
+        private PlayerMoveResponse settle; //Last skipped movement, only used by flush()
+    }
+}
@@ -18,9 +18,14 @@ package net.redstonelamp.network;
 
 import net.redstonelamp.Server;
 import net.redstonelamp.network.netInterface.AdvancedNetworkInterface;
-import net.redstonelamp.ticker.CallableTask;
+import net.redstonelamp.ticker.BoundTask;
+import net.redstonelamp.ticker.TickPhase;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,6 +40,18 @@ public class NetworkManager{
     private final Server server;
     private final ExecutorService actionPool;
     private final List<Protocol> protocols = new ArrayList<>();
+    private final SessionRegistry sessions = new SessionRegistry();
+    private final int requestsPerSession;
+    private final int requestsPerTick;
+    private final int requestsPerPlayer;
+    private final int outboundBytesPerTick;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final long slowClientTimeout;
+    private final int batchThreshold;
+    private final int maxBatchSize;
+    private final int maxBatchPackets;
+    private final MovementAggregator movements;
 
     /**
      * Create a new NetworkManager belonging to the specified <code>Server</code>
@@ -43,12 +60,46 @@ public class NetworkManager{
      */
     public NetworkManager(Server server){
         this.server = server;
-        actionPool = Executors.newFixedThreadPool(4, new PoolThreadFactory());
-        server.getTicker().addRepeatingTask(new CallableTask("tick", this), 1);
+        actionPool = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), new PoolThreadFactory());
+        requestsPerSession = Math.max(1, server.getYamlConfig().getInt("network.inbound.requests-per-session", 8));
+        requestsPerTick = Math.max(1, server.getYamlConfig().getInt("network.inbound.requests-per-tick", 25));
+        requestsPerPlayer = Math.max(0, server.getYamlConfig().getInt("network.inbound.requests-per-player", 4));
+        outboundBytesPerTick = Math.max(1024, server.getYamlConfig().getInt("network.outbound.bytes-per-tick", 65536));
+        highWatermark = Math.max(1024, server.getYamlConfig().getInt("network.outbound.high-watermark", 262144));
+        lowWatermark = Math.min(highWatermark, Math.max(0, server.getYamlConfig().getInt("network.outbound.low-watermark", 65536)));
+        slowClientTimeout = Math.max(1, server.getYamlConfig().getInt("network.outbound.slow-client-timeout", 30)) * 1000L;
+        batchThreshold = Math.max(0, server.getYamlConfig().getInt("network.outbound.batch-threshold", 256));
+        maxBatchSize = Math.max(65536, server.getYamlConfig().getInt("network.inbound.max-batch-size", 2097152));
+        maxBatchPackets = Math.max(1, server.getYamlConfig().getInt("network.inbound.max-batch-packets", 512));
+        movements = new MovementAggregator(this, Math.max(0, server.getYamlConfig().getInt("network.outbound.movement-threshold", 5)),
+                Math.max(0, server.getYamlConfig().getInt("network.outbound.rotation-threshold", 2)));
+        server.getTicker().addPhaseTask(TickPhase.NETWORK_INGEST, new BoundTask("NetworkManager ingest", this::ingest));
+        server.getTicker().addPhaseTask(TickPhase.REQUEST_PROCESSING, new BoundTask("NetworkManager requests", this::processRequests));
+        server.getTicker().addPhaseTask(TickPhase.BLOCK_FLUSH, new BoundTask("NetworkManager movements", movements::flush));
+        server.getTicker().addPhaseTask(TickPhase.OUTBOUND_FLUSH, new BoundTask("NetworkManager flush", this::flushResponses));
+        server.getTicker().addPhaseTask(TickPhase.HOUSEKEEPING, new BoundTask("NetworkManager statistics", this::sampleStatistics));
     }
 
-    public void tick(long tick){
-        protocols.forEach(Protocol::tick);
+    private void sampleStatistics(long tick){
+        if(tick % 20 == 0){
+            protocols.forEach(protocol -> protocol.getStatistics().sample());
+        }
+    }
+
+    private ObjectName getStatisticsName(Protocol protocol) throws JMException{
+        return new ObjectName("net.redstonelamp:type=Network,protocol=" + ObjectName.quote(protocol.getName()));
+    }
+
+    public void ingest(long tick){
+        protocols.forEach(Protocol::ingest);
+    }
+
+    public void processRequests(long tick){
+        protocols.forEach(Protocol::processRequests);
+    }
+
+    public void flushResponses(long tick){
+        protocols.forEach(Protocol::flushResponses);
     }
 
     /**
@@ -60,6 +111,11 @@ public class NetworkManager{
         synchronized(protocols){
             protocols.add(protocol);
         }
+        try{
+            ManagementFactory.getPlatformMBeanServer().registerMBean(protocol.getStatistics(), getStatisticsName(protocol));
+        }catch(JMException e){
+            server.getLogger().warning("Failed to register network statistics of " + protocol.getName() + " with JMX: " + e.getMessage());
+        }
         server.getLogger().info("Registered protocol: " + protocol.getName());
     }
 
@@ -98,12 +154,138 @@ public class NetworkManager{
         return server;
     }
 
+    /**
+     * Get all registered protocols.
+     *
+     * @return An unmodifiable view of the registered protocols.
+     */
+    public List<Protocol> getProtocols(){
+        return Collections.unmodifiableList(protocols);
+    }
+
+    /**
+     * Get the registry handing out the session ids of all connections.
+     *
+     * @return The session registry.
+     */
+    public SessionRegistry getSessions(){
+        return sessions;
+    }
+
+    /**
+     * Get the maximum amount of requests of a single session handled per tick.
+     *
+     * @return The per-session request budget.
+     */
+    public int getRequestsPerSession(){
+        return requestsPerSession;
+    }
+
+    /**
+     * Get the base amount of requests each protocol handles per tick.
+     *
+     * @return The per-tick request budget, without the per-player part.
+     */
+    public int getRequestsPerTick(){
+        return requestsPerTick;
+    }
+
+    /**
+     * Get the amount of requests added to the per-tick budget for every connected player.
+     *
+     * @return The per-player request budget.
+     */
+    public int getRequestsPerPlayer(){
+        return requestsPerPlayer;
+    }
+
+    /**
+     * Get the maximum amount of bytes a received batch packet may inflate to, for protocols that support batching.
+     *
+     * @return The maximum inflated batch size.
+     */
+    public int getMaxBatchSize(){
+        return maxBatchSize;
+    }
+
+    /**
+     * Get the maximum amount of packets in a received batch packet.
+     *
+     * @return The maximum amount of packets per batch.
+     */
+    public int getMaxBatchPackets(){
+        return maxBatchPackets;
+    }
+
+    /**
+     * Get the maximum amount of bytes handed to the interface per connection per tick. Packets over the budget are
+     * sent in the next ticks.
+     *
+     * @return The per-connection outbound byte budget.
+     */
+    public int getOutboundBytesPerTick(){
+        return outboundBytesPerTick;
+    }
+
+    /**
+     * Get the minimum amount of bytes flushed to a connection at once that are compressed into a batch, for protocols
+     * that support batching.
+     *
+     * @return The batch threshold.
+     */
+    public int getBatchThreshold(){
+        return batchThreshold;
+    }
+
+    /**
+     * Get the aggregator collecting the movements of players, which are broadcasted once per tick.
+     *
+     * @return The movement aggregator.
+     */
+    public MovementAggregator getMovements(){
+        return movements;
+    }
+
+    /**
+     * Get the outbound backlog in bytes above which a connection becomes congested.
+     *
+     * @return The high watermark.
+     */
+    public int getHighWatermark(){
+        return highWatermark;
+    }
+
+    /**
+     * Get the outbound backlog in bytes below which a congested connection is no longer congested.
+     *
+     * @return The low watermark.
+     */
+    public int getLowWatermark(){
+        return lowWatermark;
+    }
+
+    /**
+     * Get how long a connection may stay above the high watermark before the player is disconnected.
+     *
+     * @return The slow client timeout in milliseconds.
+     */
+    public long getSlowClientTimeout(){
+        return slowClientTimeout;
+    }
+
     public ExecutorService getActionPool() {
         return actionPool;
     }
 
     public void shutdown() {
         protocols.forEach(Protocol::onShutdown);
+        for(Protocol protocol : protocols){
+            try{
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(getStatisticsName(protocol));
+            }catch(JMException e){
+                server.getLogger().trace(e);
+            }
+        }
         actionPool.shutdown();
     }
 
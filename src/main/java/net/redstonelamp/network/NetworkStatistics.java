@@ -0,0 +1,304 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import net.redstonelamp.utils.CompressionUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Network counters of one protocol: packets and bytes in and out, per packet id, histograms of the decode and encode
+ * times and packet sizes, and gauges of the queues. The interfaces record the packets they read and write, the
+ * protocol records the decode and encode times.
+ * <br>
+ * The packet id is taken from the first byte of the packet. This is the id of every MCPE packet, and of every MCPC
+ * packet with an id below 0x80.
+ * This class is thread-safe.
+ *
+ * @author RedstoneLamp Team
+ */
+public class NetworkStatistics implements NetworkStatisticsMBean{
+    private final Protocol protocol;
+    private final LongAdder packetsIn = new LongAdder();
+    private final LongAdder packetsOut = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder[] packetsInById = newCounters();
+    private final LongAdder[] packetsOutById = newCounters();
+    private final LongAdder[] bytesInById = newCounters();
+    private final LongAdder[] bytesOutById = newCounters();
+    private final Histogram decodeNanos = new Histogram();
+    private final Histogram encodeNanos = new Histogram();
+    private final Histogram sizeIn = new Histogram();
+    private final Histogram sizeOut = new Histogram();
+
+    private long lastSample = System.nanoTime();
+    private long lastPacketsIn, lastPacketsOut, lastBytesIn, lastBytesOut;
+    private volatile long packetsInRate, packetsOutRate, bytesInRate, bytesOutRate;
+
+    NetworkStatistics(Protocol protocol){
+        this.protocol = protocol;
+    }
+
+    private static LongAdder[] newCounters(){
+        LongAdder[] counters = new LongAdder[256];
+        for(int i = 0; i < counters.length; i++){
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Record a packet read by the interface.
+     *
+     * @param packet The received packet.
+     */
+    public void recordIn(UniversalPacket packet){
+        int length = packet.getBuffer().length;
+        packetsIn.increment();
+        bytesIn.add(length);
+        sizeIn.record(length);
+        if(length > 0){
+            int id = packet.getBuffer()[0] & 0xFF;
+            packetsInById[id].increment();
+            bytesInById[id].add(length);
+        }
+    }
+
+    /**
+     * Record a packet written by the interface.
+     *
+     * @param packet The sent packet.
+     */
+    public void recordOut(UniversalPacket packet){
+        int length = packet.getBuffer().length;
+        packetsOut.increment();
+        bytesOut.add(length);
+        sizeOut.record(length);
+        if(length > 0){
+            int id = packet.getBuffer()[0] & 0xFF;
+            packetsOutById[id].increment();
+            bytesOutById[id].add(length);
+        }
+    }
+
+    void recordDecode(long nanos){
+        decodeNanos.record(nanos);
+    }
+
+    void recordEncode(long nanos){
+        encodeNanos.record(nanos);
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Compute the per-second rates since the previous sample. Called by the NetworkManager about once per second.
+     */
+    public synchronized void sample(){
+        long now = System.nanoTime();
+        double seconds = (now - lastSample) / 1e9;
+        if(seconds <= 0){
+            return;
+        }
+        long pIn = packetsIn.sum(), pOut = packetsOut.sum(), bIn = bytesIn.sum(), bOut = bytesOut.sum();
+        packetsInRate = Math.round((pIn - lastPacketsIn) / seconds);
+        packetsOutRate = Math.round((pOut - lastPacketsOut) / seconds);
+        bytesInRate = Math.round((bIn - lastBytesIn) / seconds);
+        bytesOutRate = Math.round((bOut - lastBytesOut) / seconds);
+        lastPacketsIn = pIn;
+        lastPacketsOut = pOut;
+        lastBytesIn = bIn;
+        lastBytesOut = bOut;
+        lastSample = now;
+    }
+
+    /**
+     * Get the ids of the packets that used the most bytes.
+     *
+     * @param inbound If received packets should be ranked, sent packets otherwise.
+     * @param limit   The maximum amount of ids.
+     * @return The packet ids, most bytes first.
+     */
+    public List<Integer> getTopPacketIds(boolean inbound, int limit){
+        LongAdder[] bytes = inbound ? bytesInById : bytesOutById;
+        List<Integer> ids = new ArrayList<>();
+        for(int id = 0; id < bytes.length; id++){
+            if(bytes[id].sum() > 0){
+                ids.add(id);
+            }
+        }
+        ids.sort(Comparator.comparingLong((Integer id) -> bytes[id].sum()).reversed());
+        return ids.subList(0, Math.min(limit, ids.size()));
+    }
+
+    /**
+     * Get the amount of packets with the id <code>id</code>.
+     *
+     * @param inbound If received packets should be counted, sent packets otherwise.
+     * @param id      The packet id.
+     * @return The packet count.
+     */
+    public long getPackets(boolean inbound, int id){
+        return (inbound ? packetsInById : packetsOutById)[id & 0xFF].sum();
+    }
+
+    /**
+     * Get the amount of bytes of the packets with the id <code>id</code>.
+     *
+     * @param inbound If received packets should be counted, sent packets otherwise.
+     * @param id      The packet id.
+     * @return The byte count.
+     */
+    public long getBytes(boolean inbound, int id){
+        return (inbound ? bytesInById : bytesOutById)[id & 0xFF].sum();
+    }
+
+    public Histogram getDecodeNanos(){
+        return decodeNanos;
+    }
+
+    public Histogram getEncodeNanos(){
+        return encodeNanos;
+    }
+
+    public Histogram getPacketSizeIn(){
+        return sizeIn;
+    }
+
+    public Histogram getPacketSizeOut(){
+        return sizeOut;
+    }
+
+    @Override
+    public long getPacketsIn(){
+        return packetsIn.sum();
+    }
+
+    @Override
+    public long getPacketsOut(){
+        return packetsOut.sum();
+    }
+
+    @Override
+    public long getBytesIn(){
+        return bytesIn.sum();
+    }
+
+    @Override
+    public long getBytesOut(){
+        return bytesOut.sum();
+    }
+
+    @Override
+    public long getBytesInPerSecond(){
+        return bytesInRate;
+    }
+
+    @Override
+    public long getBytesOutPerSecond(){
+        return bytesOutRate;
+    }
+
+    @Override
+    public long getPacketsInPerSecond(){
+        return packetsInRate;
+    }
+
+    @Override
+    public long getPacketsOutPerSecond(){
+        return packetsOutRate;
+    }
+
+    @Override
+    public double getMeanDecodeMicros(){
+        return decodeNanos.getMean() / 1000.0;
+    }
+
+    @Override
+    public long getP99DecodeMicros(){
+        return TimeUnit.NANOSECONDS.toMicros(decodeNanos.getPercentile(99));
+    }
+
+    @Override
+    public double getMeanEncodeMicros(){
+        return encodeNanos.getMean() / 1000.0;
+    }
+
+    @Override
+    public long getP99EncodeMicros(){
+        return TimeUnit.NANOSECONDS.toMicros(encodeNanos.getPercentile(99));
+    }
+
+    @Override
+    public double getMeanPacketSizeIn(){
+        return sizeIn.getMean();
+    }
+
+    @Override
+    public double getMeanPacketSizeOut(){
+        return sizeOut.getMean();
+    }
+
+    @Override
+    public int getInboundQueueDepth(){
+        return protocol.getInboundQueueDepth();
+    }
+
+    @Override
+    public int getOutboundQueueDepth(){
+        return protocol.getOutboundQueueDepth();
+    }
+
+    @Override
+    public long getOutboundBacklog(){
+        return protocol.getOutboundBacklog();
+    }
+
+    @Override
+    public int getCongestedSessions(){
+        return protocol.getCongestedSessions();
+    }
+
+    @Override
+    public double getCompressionRatio(){
+        return CompressionUtils.getCompressionRatio();
+    }
+
+    @Override
+    public synchronized void reset(){
+        packetsIn.reset();
+        packetsOut.reset();
+        bytesIn.reset();
+        bytesOut.reset();
+        for(int id = 0; id < 256; id++){
+            packetsInById[id].reset();
+            packetsOutById[id].reset();
+            bytesInById[id].reset();
+            bytesOutById[id].reset();
+        }
+        decodeNanos.reset();
+        encodeNanos.reset();
+        sizeIn.reset();
+        sizeOut.reset();
+        lastPacketsIn = lastPacketsOut = lastBytesIn = lastBytesOut = 0;
+        lastSample = System.nanoTime();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+/**
+ * The JMX management interface of <code>NetworkStatistics</code>, registered as
+ * <code>net.redstonelamp:type=Network,protocol=&lt;name&gt;</code> for every protocol.
+ *
+ * @author RedstoneLamp Team
+ */
+public interface NetworkStatisticsMBean{
+    long getPacketsIn();
+
+    long getPacketsOut();
+
+    long getBytesIn();
+
+    long getBytesOut();
+
+    long getBytesInPerSecond();
+
+    long getBytesOutPerSecond();
+
+    long getPacketsInPerSecond();
+
+    long getPacketsOutPerSecond();
+
+    double getMeanDecodeMicros();
+
+    long getP99DecodeMicros();
+
+    double getMeanEncodeMicros();
+
+    long getP99EncodeMicros();
+
+    double getMeanPacketSizeIn();
+
+    double getMeanPacketSizeOut();
+
+    int getInboundQueueDepth();
+
+    int getOutboundQueueDepth();
+
+    long getOutboundBacklog();
+
+    int getCongestedSessions();
+
+    double getCompressionRatio();
+
+    void reset();
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import net.redstonelamp.Player;
+import net.redstonelamp.response.Response;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The queue of responses waiting to be sent to one player. Responses are added by any thread and flushed once per
+ * tick, in the order they were added.
+ * <br>
+ * Every entry is either an array of responses (a single response, or the responses of one
+ * <code>Protocol.sendQueuedResponses()</code> call, which may be combined into fewer packets) or the shared
+ * encoding of a <code>Broadcast</code>.
+ * A queue is in its protocol's dirty list while it has responses or is being flushed; <code>scheduled</code> makes
+ * sure it is only in there once, so a player never has two flushes running at the same time.
+ * <br>
+ * Encoded packets exceeding the per-tick byte budget are held back until the next flush. The held bytes and the
+ * bytes the interface has not written yet make up the backlog of the connection; while it is above the high
+ * watermark the queue is congested until it drops below the low watermark. While congested, movement updates are
+ * held back unencoded, only the newest one of each entity, and sent once the encoded backlog fits in a tick's budget.
+ *
+ * @author RedstoneLamp Team
+ */
+public class OutboundQueue{
+    private final Player player;
+    private final Queue<Object> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    //Only touched by the flush of this queue, of which there is only one at a time
+    private final Deque<UniversalPacket> held = new ArrayDeque<>();
+    private final Map<Long, Object> heldMoves = new LinkedHashMap<>();
+    private long heldBytes = 0;
+    long congestedSince = 0;
+    boolean disconnecting = false;
+    private volatile boolean congested = false;
+    private volatile long backlog = 0;
+
+    OutboundQueue(Player player){
+        this.player = player;
+    }
+
+    boolean add(Response[] entry){
+        return addEntry(entry);
+    }
+
+    boolean add(SharedEncoding entry){
+        return addEntry(entry);
+    }
+
+    private boolean addEntry(Object entry){
+        entries.add(entry);
+        size.incrementAndGet();
+        return scheduled.compareAndSet(false, true);
+    }
+
+    List<Object> drain(){
+        List<Object> drained = new ArrayList<>();
+        Object entry;
+        while((entry = entries.poll()) != null){
+            size.decrementAndGet();
+            drained.add(entry);
+        }
+        return drained;
+    }
+
+    void hold(List<UniversalPacket> packets){
+        for(UniversalPacket packet : packets){
+            held.add(packet);
+            heldBytes += packet.getBuffer().length;
+        }
+    }
+
+    /**
+     * Take the held packets fitting in <code>budget</code> bytes, but at least one.
+     */
+    UniversalPacket[] release(long budget){
+        List<UniversalPacket> packets = new ArrayList<>();
+        long bytes = 0;
+        UniversalPacket packet;
+        while((packet = held.peek()) != null && (packets.isEmpty() || bytes + packet.getBuffer().length <= budget)){
+            held.poll();
+            bytes += packet.getBuffer().length;
+            heldBytes -= packet.getBuffer().length;
+            packets.add(packet);
+        }
+        return packets.toArray(new UniversalPacket[packets.size()]);
+    }
+
+    boolean hasHeld(){
+        return !held.isEmpty();
+    }
+
+    /**
+     * Hold back a movement entry of an entity, replacing the one held before.
+     *
+     * @return If an older movement of the entity was replaced
+     */
+    boolean holdMove(long entityID, Object entry){
+        return heldMoves.put(entityID, entry) != null;
+    }
+
+    boolean hasHeldMoves(){
+        return !heldMoves.isEmpty();
+    }
+
+    List<Object> releaseMoves(){
+        List<Object> moves = new ArrayList<>(heldMoves.values());
+        heldMoves.clear();
+        return moves;
+    }
+
+    long getHeldBytes(){
+        return heldBytes;
+    }
+
+    void setBacklog(long backlog, boolean congested){
+        this.backlog = backlog;
+        this.congested = congested;
+    }
+
+    /**
+     * Get the backlog of the connection at the last flush: the bytes held back by the byte budget and the bytes
+     * the interface has not written yet.
+     *
+     * @return The backlog in bytes.
+     */
+    public long getBacklog(){
+        return backlog;
+    }
+
+    /**
+     * Check if the connection is congested: its backlog went above the high watermark and did not drop below
+     * the low watermark yet. Superseded updates are merged and chunk sending is paused while congested.
+     *
+     * @return If the connection is congested.
+     */
+    public boolean isCongested(){
+        return congested;
+    }
+
+    /**
+     * Get the player this queue belongs to.
+     *
+     * @return The player.
+     */
+    public Player getPlayer(){
+        return player;
+    }
+
+    /**
+     * Get the amount of entries waiting in this queue.
+     *
+     * @return The queue depth.
+     */
+    public int size(){
+        return size.get();
+    }
+}
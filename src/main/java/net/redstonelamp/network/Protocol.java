@@ -21,11 +21,19 @@ import net.redstonelamp.Server;
 import net.redstonelamp.network.netInterface.NetworkInterface;
 import net.redstonelamp.request.LoginRequest;
 import net.redstonelamp.request.Request;
+import net.redstonelamp.response.PlayerMoveResponse;
 import net.redstonelamp.response.Response;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
+import net.redstonelamp.utils.AntiSpam;
 
+import java.net.SocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base class for a Protocol.
@@ -33,10 +41,32 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * @author RedstoneLamp Team
  */
 public abstract class Protocol{
+    /**
+     * The maximum amount of requests waiting in the queue of a single session. Further requests are dropped.
+     */
+    public static final int MAX_SESSION_QUEUE = 1024;
+    private static final String ANTISPAM_QUEUE_FULL = "net.redstonelamp.network.Protocol.InboundQueueFull";
     private NetworkManager manager;
-    private final Queue<Request> requestQueue = new ArrayDeque<>();
-    private final Map<String, Player> players = new ConcurrentHashMap<>();
+    private final Map<Integer, InboundQueue> inbound = new ConcurrentHashMap<>();
+    private final Map<Integer, SerialExecutor> lanes = new ConcurrentHashMap<>();
+    private final Queue<InboundQueue> ready = new ConcurrentLinkedQueue<>(); //Sessions with queued requests, in round-robin order
+    private final Map<Integer, OutboundQueue> outbound = new ConcurrentHashMap<>();
+    private final Queue<OutboundQueue> dirty = new ConcurrentLinkedQueue<>(); //Players with queued responses
+    private final AtomicBoolean ingesting = new AtomicBoolean();
+    private final AtomicInteger inboundDepth = new AtomicInteger();
+    private final AtomicLong droppedRequests = new AtomicLong();
+    private final AtomicLong mergedResponses = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+    private volatile int peakInboundDepth = 0;
+    private final Map<Integer, Player> players = new ConcurrentHashMap<>();
+    private final NetworkStatistics statistics = new NetworkStatistics(this);
     protected NetworkInterface _interface;
+    private final ClassValue<Timing> encodeTimings = new ClassValue<Timing>(){
+        @Override
+        protected Timing computeValue(Class<?> type){
+            return Timings.of(getName() + " encode " + type.getSimpleName());
+        }
+    };
 
     /**
      * Abstract Protocol constructor, all implementing classes MUST SET _interface IN CONSTRUCTOR.
@@ -47,48 +77,433 @@ public abstract class Protocol{
         this.manager = manager;
     }
 
-    protected final void tick() {
+    /**
+     * Read all available packets from the interface, on the network pool, and queue the translated requests
+     * in the queue of their session. Only one pool thread reads from the interface at a time.
+     * Called by the NetworkManager in the network ingest phase.
+     */
+    protected final void ingest() {
+        if(!ingesting.compareAndSet(false, true)){
+            return; //The previous read is still running
+        }
         try{
             manager.getActionPool().execute(() -> {
                 UniversalPacket packet;
                 try {
                     while ((packet = _interface.readPacket()) != null) {
+                        long start = System.nanoTime();
                         Request[] requests = handlePacket(packet);
-                        for (Request r : requests) {
-                            r.from = packet.getAddress();
-                        }
-                        Collections.addAll(requestQueue, requests);
+                        statistics.recordDecode(System.nanoTime() - start);
+                        queueRequests(packet, requests);
                     }
                 } catch (LowLevelNetworkException e) {
                     e.printStackTrace();
+                } catch (Exception e) {
+                    manager.getServer().getLogger().trace(e);
+                } finally {
+                    ingesting.set(false);
                 }
             });
-            int max = 25;
-            if(!requestQueue.isEmpty()) {
-                while(max > 0 && !requestQueue.isEmpty()) {
-                    max = max - 1;
-                    Request r = requestQueue.remove();
-                    if(players.containsKey(r.from.toString())){
-                        manager.getActionPool().execute(() -> players.get(r.from.toString()).handleRequest(r));
-                        //players.get(r.from.toString()).handleRequest(r);
-                    }else{
-                        if(r instanceof LoginRequest){
-                            final Player player = manager.getServer().openSession(r.from, this, (LoginRequest) r);
-                            players.put(player.getAddress().toString(), player);
-                            manager.getActionPool().execute(() -> player.handleRequest(r));
-                            //player.handleRequest(r);
-                        }else{
-                            manager.getServer().getLogger().warning("Failed to open session, Request: " + r.getClass().getName());
-                        }
-                    }
+        }catch(Exception e){
+            ingesting.set(false);
+            manager.getServer().getLogger().trace(e);
+        }
+    }
+
+    private void queueRequests(UniversalPacket packet, Request[] requests) {
+        SocketAddress address = packet.getAddress();
+        InboundQueue queue = null;
+        for (Request r : requests) {
+            if (r == null) {
+                continue;
+            }
+            if (queue == null) {
+                int id = packet.getSessionId() != SessionRegistry.NO_SESSION ? packet.getSessionId() : manager.getSessions().open(address);
+                queue = inbound.computeIfAbsent(id, i -> new InboundQueue(i, address));
+            }
+            r.from = address;
+            r.session = queue.getSessionId();
+            if (queue.size() >= MAX_SESSION_QUEUE) {
+                droppedRequests.incrementAndGet();
+                AntiSpam.act(() -> manager.getServer().getLogger().warning("Inbound queue of " + address + " is full, dropping requests."), ANTISPAM_QUEUE_FULL, 5000);
+                continue;
+            }
+            if (queue.add(r)) {
+                ready.add(queue);
+            }
+            int depth = inboundDepth.incrementAndGet();
+            if (depth > peakInboundDepth) {
+                peakInboundDepth = depth;
+            }
+        }
+    }
+
+    /**
+     * Hand queued requests to their players, visiting the sessions with queued requests round-robin.
+     * Each session may have at most <code>requests-per-session</code> requests handled per tick, and the protocol at
+     * most <code>requests-per-tick</code> plus <code>requests-per-player</code> for every player.
+     * Sessions that did not get their turn are first in line next tick.
+     * Called by the NetworkManager in the request processing phase.
+     */
+    protected final void processRequests() {
+        int perSession = manager.getRequestsPerSession();
+        int budget = manager.getRequestsPerTick() + manager.getRequestsPerPlayer() * players.size();
+        for (int sessions = ready.size(); sessions > 0 && budget > 0; sessions--) {
+            InboundQueue queue = ready.poll();
+            if (queue == null) {
+                break;
+            }
+            int handled = 0;
+            Request r;
+            while (handled < perSession && budget > 0 && (r = queue.poll()) != null) {
+                handled++;
+                budget--;
+                inboundDepth.decrementAndGet();
+                dispatchRequest(r);
+            }
+            if (queue.size() > 0) {
+                ready.add(queue);
+                continue;
+            }
+            queue.scheduled.set(false);
+            if (queue.size() > 0 && queue.scheduled.compareAndSet(false, true)) {
+                ready.add(queue); //A request was added while we were unscheduling
+            } else if (!players.containsKey(queue.getSessionId())) {
+                inbound.remove(queue.getSessionId(), queue); //Session without a player, e.g. a failed login
+            }
+        }
+    }
+
+    private void dispatchRequest(Request r) {
+        try{
+            Player player = players.get(r.session);
+            if(player != null){
+                handleRequest(player, r);
+            }else{
+                if(r instanceof LoginRequest){
+                    final Player newPlayer = manager.getServer().openSession(r.from, r.session, this, (LoginRequest) r);
+                    players.put(r.session, newPlayer);
+                    handleRequest(newPlayer, r);
+                }else{
+                    manager.getServer().getLogger().warning("Failed to open session, Request: " + r.getClass().getName());
                 }
-                //if(max < 25) System.out.println("processed: "+max);
             }
         }catch(Exception e){
             manager.getServer().getLogger().trace(e);
         }
     }
 
+    /**
+     * Let <code>player</code> handle <code>request</code> on the player's lane of the network pool.
+     * Requests of the same player are handled one at a time, in the order this method was called.
+     *
+     * @param player  The player handling the request.
+     * @param request The request to be handled.
+     */
+    public void handleRequest(Player player, Request request) {
+        getLane(player).execute(() -> player.handleRequest(request));
+    }
+
+    /**
+     * Get the lane of <code>player</code>: the serial executor its requests are handled on.
+     * Work that has to be ordered with the player's requests can be submitted to it.
+     *
+     * @param player The player.
+     * @return The player's lane.
+     */
+    public SerialExecutor getLane(Player player) {
+        return lanes.computeIfAbsent(player.getSessionId(), i -> new SerialExecutor(manager.getActionPool()));
+    }
+
+    /**
+     * Get the player of the session <code>sessionId</code> of this protocol.
+     *
+     * @param sessionId The session id.
+     * @return The Player, if found, null if not
+     */
+    public Player getPlayer(int sessionId) {
+        return players.get(sessionId);
+    }
+
+    /**
+     * Hand the queued responses of every player to the network pool, which encodes them in order and passes them
+     * to the interface in one call per player. A player's next flush only starts after the previous one finished.
+     * Called by the NetworkManager in the outbound flush phase.
+     */
+    protected final void flushResponses() {
+        for (int players = dirty.size(); players > 0; players--) {
+            OutboundQueue queue = dirty.poll();
+            if (queue == null) {
+                break;
+            }
+            try {
+                manager.getActionPool().execute(() -> flush(queue));
+            } catch (Exception e) {
+                dirty.add(queue);
+                manager.getServer().getLogger().trace(e);
+                break;
+            }
+        }
+    }
+
+    private void flush(OutboundQueue queue) {
+        Player player = queue.getPlayer();
+        try {
+            List<Object> entries = queue.drain();
+            if (queue.isCongested()) {
+                entries = holdMoves(queue, entries);
+            }
+            List<UniversalPacket> packets = new ArrayList<>();
+            long bytes = encodeEntries(entries, player, packets);
+            if (queue.hasHeldMoves() && queue.getHeldBytes() + bytes < manager.getOutboundBytesPerTick()) {
+                encodeEntries(queue.releaseMoves(), player, packets); //The backlog is sent this tick, moves can follow
+            }
+            queue.hold(coalesce(player, packets));
+            if (queue.hasHeld() && player.isConnected()) {
+                _interface.sendPackets(queue.release(manager.getOutboundBytesPerTick()));
+            }
+            if (player.isConnected()) {
+                updateBacklog(queue);
+            }
+        } catch (LowLevelNetworkException e) {
+            manager.getServer().getLogger().error(e.getClass().getName() + " while flushing responses to " + player.getAddress() + ": " + e.getMessage());
+            manager.getServer().getLogger().trace(e);
+        } catch (Exception e) {
+            manager.getServer().getLogger().trace(e);
+        } finally {
+            queue.scheduled.set(false);
+            if (!player.isConnected()) {
+                outbound.remove(player.getSessionId(), queue);
+            } else if ((queue.size() > 0 || queue.hasHeld() || queue.hasHeldMoves()) && queue.scheduled.compareAndSet(false, true)) {
+                dirty.add(queue); //Responses were added while we were flushing, or packets were held back
+            }
+        }
+    }
+
+    private void updateBacklog(OutboundQueue queue) {
+        Player player = queue.getPlayer();
+        long backlog = queue.getHeldBytes() + _interface.getPendingBytes(player.getSessionId());
+        boolean congested = backlog > manager.getHighWatermark() || (queue.isCongested() && backlog > manager.getLowWatermark());
+        queue.setBacklog(backlog, congested);
+        if (backlog <= manager.getHighWatermark()) {
+            queue.congestedSince = 0;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (queue.congestedSince == 0) {
+            queue.congestedSince = now;
+        } else if (now - queue.congestedSince >= manager.getSlowClientTimeout() && !queue.disconnecting) {
+            queue.disconnecting = true;
+            slowDisconnects.incrementAndGet();
+            manager.getServer().getLogger().warning(player.getName() + "[" + player.getAddress() + "] could not keep up with " + backlog + " bytes of outbound backlog, disconnecting.");
+            getLane(player).execute(() -> player.close("redstonelamp.translation.player.left", "connection too slow", false));
+        }
+    }
+
+    /**
+     * Encode queued entries in order and return the amount of bytes encoded.
+     */
+    private long encodeEntries(List<Object> entries, Player player, List<UniversalPacket> packets) {
+        int first = packets.size();
+        for (Object entry : entries) {
+            try {
+                if (entry instanceof SharedEncoding) {
+                    ((SharedEncoding) entry).addPackets(player, packets);
+                } else {
+                    encodeEntry((Response[]) entry, player, packets);
+                }
+            } catch (IllegalArgumentException e) {
+                manager.getServer().getLogger().trace(e);
+            }
+        }
+        long bytes = 0;
+        for (int i = first; i < packets.size(); i++) {
+            bytes += packets.get(i).getBuffer().length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Take the moves out of <code>entries</code> and hold them back unencoded in the queue, where a newer move of an
+     * entity replaces the held one. They are sent once the encoded backlog fits in the byte budget of a tick, so
+     * moves superseded while waiting for the backlog are never sent.
+     */
+    private List<Object> holdMoves(OutboundQueue queue, List<Object> entries) {
+        List<Object> rest = new ArrayList<>(entries.size());
+        for (Object entry : entries) {
+            PlayerMoveResponse move = getMove(entry);
+            if (move == null) {
+                rest.add(entry);
+            } else if (queue.holdMove(move.entityID, entry)) {
+                mergedResponses.incrementAndGet();
+            }
+        }
+        return rest;
+    }
+
+    private PlayerMoveResponse getMove(Object entry) {
+        Response[] responses = entry instanceof SharedEncoding ? ((SharedEncoding) entry).getResponses() : (Response[]) entry;
+        return responses.length == 1 && responses[0] instanceof PlayerMoveResponse ? (PlayerMoveResponse) responses[0] : null;
+    }
+
+    /**
+     * Check if the connection of <code>player</code> is congested, see <code>OutboundQueue.isCongested()</code>.
+     * Bulk sends such as chunks should be paused while it is.
+     *
+     * @param player The player.
+     * @return If the player's connection is congested.
+     */
+    public boolean isCongested(Player player) {
+        OutboundQueue queue = outbound.get(player.getSessionId());
+        return queue != null && queue.isCongested();
+    }
+
+    /**
+     * Combine the packets sent to <code>player</code> at once, e.g. into compressed batches. The default
+     * implementation returns them unchanged.
+     *
+     * @param player  The player the packets are sent to
+     * @param packets The packets, in the order they are sent
+     * @return The packets to send instead
+     */
+    protected List<UniversalPacket> coalesce(Player player, List<UniversalPacket> packets) {
+        return packets;
+    }
+
+    final void encodeEntry(Response[] entry, Player player, List<UniversalPacket> packets) {
+        if (entry.length == 1) {
+            Collections.addAll(packets, encode(entry[0], player));
+        } else {
+            encodeQueued(entry, player, packets);
+        }
+    }
+
+    /**
+     * Encode responses of the same type together if the protocol supports it, falling back to encoding them one by one.
+     */
+    private void encodeQueued(Response[] responses, Player player, List<UniversalPacket> packets) {
+        List<Response> typeResponses = new ArrayList<>();
+        List<Response> rest = new ArrayList<>();
+        for (Response r : responses) {
+            if (r.getClass() == responses[0].getClass()) {
+                typeResponses.add(r);
+            } else {
+                rest.add(r);
+            }
+        }
+        UniversalPacket[] combined = _sendQueuedResponses(typeResponses.toArray(new Response[typeResponses.size()]), player);
+        if (combined == null) { //Protocol doesn't support combining responses
+            for (Response r : responses) {
+                Collections.addAll(packets, encode(r, player));
+            }
+            return;
+        }
+        Collections.addAll(packets, combined);
+        if (!rest.isEmpty()) {
+            encodeQueued(rest.toArray(new Response[rest.size()]), player, packets);
+        }
+    }
+
+    /**
+     * Get the amount of responses (or combinable groups of responses) waiting to be flushed, for all players of this
+     * protocol.
+     *
+     * @return The total outbound queue depth.
+     */
+    public int getOutboundQueueDepth() {
+        int depth = 0;
+        for (OutboundQueue queue : outbound.values()) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Get the total outbound backlog of all players of this protocol, as of their last flush.
+     *
+     * @return The total backlog in bytes.
+     */
+    public long getOutboundBacklog() {
+        long backlog = 0;
+        for (OutboundQueue queue : outbound.values()) {
+            backlog += queue.getBacklog();
+        }
+        return backlog;
+    }
+
+    /**
+     * Get the amount of congested connections of this protocol.
+     *
+     * @return The amount of players whose connection is congested.
+     */
+    public int getCongestedSessions() {
+        int congested = 0;
+        for (OutboundQueue queue : outbound.values()) {
+            if (queue.isCongested()) {
+                congested++;
+            }
+        }
+        return congested;
+    }
+
+    /**
+     * Get the amount of responses dropped because a newer response superseded them while the connection was congested.
+     *
+     * @return The amount of merged responses.
+     */
+    public long getMergedResponses() {
+        return mergedResponses.get();
+    }
+
+    /**
+     * Get the amount of players disconnected because their connection could not keep up.
+     *
+     * @return The amount of slow client disconnects.
+     */
+    public long getSlowClientDisconnects() {
+        return slowDisconnects.get();
+    }
+
+    /**
+     * Get the amount of received requests waiting to be handled, in all sessions of this protocol.
+     *
+     * @return The total inbound queue depth.
+     */
+    public int getInboundQueueDepth() {
+        return inboundDepth.get();
+    }
+
+    /**
+     * Get the highest total inbound queue depth since the protocol was started.
+     *
+     * @return The peak inbound queue depth.
+     */
+    public int getPeakInboundQueueDepth() {
+        return peakInboundDepth;
+    }
+
+    /**
+     * Get the depth of the fullest session queue of this protocol.
+     *
+     * @return The maximum inbound queue depth of a single session.
+     */
+    public int getMaxSessionQueueDepth() {
+        int max = 0;
+        for (InboundQueue queue : inbound.values()) {
+            max = Math.max(max, queue.size());
+        }
+        return max;
+    }
+
+    /**
+     * Get the amount of requests dropped because the queue of their session was full.
+     *
+     * @return The amount of dropped requests.
+     */
+    public long getDroppedRequests() {
+        return droppedRequests.get();
+    }
+
     /**
      * Get this protocol's name.
      *
@@ -111,69 +526,79 @@ public abstract class Protocol{
      */
     public abstract Request[] handlePacket(UniversalPacket packet);
 
+    private UniversalPacket[] encode(Response response, Player player){
+        long start = System.nanoTime();
+        try{
+            return _sendResponse(response, player);
+        }finally{
+            long nanos = System.nanoTime() - start;
+            statistics.recordEncode(nanos);
+            if(Timings.isEnabled()){
+                encodeTimings.get(response.getClass()).record(nanos);
+            }
+        }
+    }
+
     /**
-     * Send a <code>Response</code> by translating it into a native packet
+     * Send a <code>Response</code> by translating it into a native packet.
+     * The response is added to the player's outbound queue, which is flushed once per tick in order.
      *
      * @param response The Response to be sent
      * @param player   The Player the response is being sent from
      */
     public void sendResponse(Response response, Player player){
-        manager.getActionPool().execute(() -> {
-            try {
-                UniversalPacket[] packets = _sendResponse(response, player);
-                for (UniversalPacket packet : packets) {
-                    try {
-                        _interface.sendPacket(packet, false);
-                    } catch (LowLevelNetworkException e) {
-                        manager.getServer().getLogger().error(e.getClass().getName() + " while sending response " + response.getClass().getName() + ": " + e.getMessage());
-                        manager.getServer().getLogger().trace(e);
-                    }
-                }
-            } catch (IllegalArgumentException e) {
-                e.printStackTrace();
-                //TODO
-            }
-        });
+        queueResponses(new Response[]{response}, player);
     }
 
     /**
      * Sends a queue of responses to a player, combining them into one or more packets if possible.
+     * The responses are added to the player's outbound queue, which is flushed once per tick in order.
      *
      * @param responses The queue of responses.
      * @param player    The player they are to be sent to.
      */
     public void sendQueuedResponses(Response[] responses, Player player){
-        manager.getActionPool().execute(() -> {
-            List<Response> typeResponses = new ArrayList<>();
-            List<Response> rest = new ArrayList<>();
-            typeResponses.add(responses[0]);
-            for (Response r : responses) {
-                if (r.getClass().getName().equals(typeResponses.get(0).getClass().getName()) && r != typeResponses.get(0)) {
-                    typeResponses.add(r);
-                } else if (r != typeResponses.get(0)) {
-                    rest.add(r);
-                }
-            }
-            UniversalPacket[] packets = _sendQueuedResponses(typeResponses.toArray(new Response[typeResponses.size()]), player);
-            if (packets == null) { //Check if protocol supports
-                //protocol doesn't support
-                for (Response r : responses) {
-                    sendResponse(r, player);
-                }
-                return;
-            }
-            for (UniversalPacket packet : packets) {
-                try {
-                    _interface.sendPacket(packet, false);
-                } catch (LowLevelNetworkException e) {
-                    manager.getServer().getLogger().error(e.getClass().getName() + " while sending queued responses of type " + responses[0].getClass().getName() + ": " + e.getMessage());
-                    manager.getServer().getLogger().trace(e);
-                }
-            }
-            if (!rest.isEmpty()) {
-                sendQueuedResponses(rest.toArray(new Response[rest.size()]), player);
-            }
-        });
+        if(responses.length > 0){
+            queueResponses(responses, player);
+        }
+    }
+
+    private void queueResponses(Response[] entry, Player player){
+        if(!player.isConnected()){
+            return;
+        }
+        OutboundQueue queue = getOutboundQueue(player);
+        if(queue.add(entry)){
+            dirty.add(queue);
+        }
+    }
+
+    final void queueShared(SharedEncoding entry, Player player){
+        if(!player.isConnected()){
+            return;
+        }
+        OutboundQueue queue = getOutboundQueue(player);
+        if(queue.add(entry)){
+            dirty.add(queue);
+        }
+    }
+
+    private OutboundQueue getOutboundQueue(Player player){
+        return outbound.computeIfAbsent(player.getSessionId(), i -> new OutboundQueue(player));
+    }
+
+    /**
+     * Get the key of the encoding of <code>response</code> for <code>player</code>. Broadcasted responses are encoded
+     * once for all recipients with equal keys, so the encoding must not depend on anything of the player other than
+     * the key. The key is usually the protocol itself, or the player's subprotocol.
+     * Override this method to let broadcasts share encodings; by default nothing is shared.
+     *
+     * @param response The response being broadcasted.
+     * @param player   The recipient.
+     * @return The encoding key, or null if the response has to be encoded for this player on its own.
+     */
+    protected Object getEncodingKey(Response response, Player player){
+        return null;
     }
 
     /**
@@ -185,7 +610,7 @@ public abstract class Protocol{
      * @param player   The Player the response is being sent from
      */
     public void sendImmediateResponse(Response response, Player player){
-        UniversalPacket[] packets = _sendResponse(response, player);
+        List<UniversalPacket> packets = coalesce(player, Arrays.asList(encode(response, player)));
         for (UniversalPacket packet : packets) {
             try {
                 _interface.sendPacket(packet, true);
@@ -203,8 +628,17 @@ public abstract class Protocol{
      * @param player The Player closing
      */
     public final void close(Player player){
-        players.remove(player.getAddress().toString());
+        players.remove(player.getSessionId(), player);
+        lanes.remove(player.getSessionId());
+        outbound.remove(player.getSessionId());
+        InboundQueue queue = inbound.remove(player.getSessionId());
+        if(queue != null){
+            while(queue.poll() != null){
+                inboundDepth.decrementAndGet();
+            }
+        }
         onClose(player);
+        manager.getSessions().close(player.getAddress(), player.getSessionId());
     }
 
     /**
@@ -254,6 +688,15 @@ public abstract class Protocol{
         }
     }
 
+    /**
+     * Get the network statistics of this protocol.
+     *
+     * @return The <code>NetworkStatistics</code> of this protocol.
+     */
+    public NetworkStatistics getStatistics(){
+        return statistics;
+    }
+
     /**
      * Get the <code>NetworkManager</code> that this protocol belongs to.
      *
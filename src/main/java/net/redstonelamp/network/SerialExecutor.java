@@ -0,0 +1,90 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An <code>Executor</code> running its tasks one at a time, in submission order, on a shared underlying executor.
+ * <br>
+ * Each session gets its own SerialExecutor (lane) on the network pool, so the requests of one player never run
+ * concurrently or out of order, while different players are still handled in parallel.
+ *
+ * @author RedstoneLamp Team
+ */
+public class SerialExecutor implements Executor{
+    /**
+     * The maximum amount of tasks ran before the lane gives its pool thread back to other lanes.
+     */
+    private static final int MAX_BATCH = 64;
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public SerialExecutor(Executor executor){
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task){
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule(){
+        if(scheduled.compareAndSet(false, true)){
+            try{
+                executor.execute(this::drain);
+            }catch(RejectedExecutionException e){
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain(){
+        try{
+            Runnable task;
+            for(int i = 0; i < MAX_BATCH && (task = tasks.poll()) != null; i++){
+                try{
+                    task.run();
+                }catch(Throwable t){
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                }
+            }
+        }finally{
+            scheduled.set(false);
+            if(!tasks.isEmpty()){
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Get the amount of tasks waiting to be ran on this lane.
+     *
+     * @return The amount of pending tasks.
+     */
+    public int getPendingTasks(){
+        return tasks.size();
+    }
+}
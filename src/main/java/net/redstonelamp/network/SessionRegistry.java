@@ -0,0 +1,81 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the session ids of all connections. A connection gets a compact integer id when it is accepted by its
+ * network interface, and keeps it until it is closed. Players, protocols and interfaces index their sessions by
+ * this id instead of by the address.
+ *
+ * @author RedstoneLamp Team
+ */
+public class SessionRegistry{
+    /**
+     * The session id of a packet or request that does not belong to a session.
+     */
+    public static final int NO_SESSION = -1;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<SocketAddress, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * INTERNAL METHOD!
+     * Get the session id of <code>address</code>, assigning a new one if the address does not have a session yet.
+     *
+     * @param address The address of the connection.
+     * @return The session id.
+     */
+    public int open(SocketAddress address){
+        return ids.computeIfAbsent(address, a -> nextId.getAndIncrement() & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the session id of <code>address</code>.
+     *
+     * @param address The address of the connection.
+     * @return The session id, or <code>NO_SESSION</code> if the address does not have a session.
+     */
+    public int getId(SocketAddress address){
+        Integer id = ids.get(address);
+        return id == null ? NO_SESSION : id;
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Release the session id of <code>address</code>, if it still is <code>id</code>. A new connection from the
+     * address will get a new id.
+     *
+     * @param address The address of the connection.
+     * @param id      The session id of the connection.
+     */
+    public void close(SocketAddress address, int id){
+        ids.remove(address, id);
+    }
+
+    /**
+     * Get the amount of open sessions.
+     *
+     * @return The amount of sessions that have an id.
+     */
+    public int size(){
+        return ids.size();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network;
+
+import net.redstonelamp.Player;
+import net.redstonelamp.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The encoding of a <code>Broadcast</code> shared by all its recipients with the same encoding key. The responses are
+ * encoded by the first recipient's flush; the others only wrap the encoded buffers with their own address.
+ * The buffers must not be modified after encoding.
+ *
+ * @author RedstoneLamp Team
+ */
+class SharedEncoding{
+    private final Protocol protocol;
+    private final Response[] responses;
+    private volatile UniversalPacket[] packets;
+
+    SharedEncoding(Protocol protocol, Response[] responses){
+        this.protocol = protocol;
+        this.responses = responses;
+    }
+
+    Response[] getResponses(){
+        return responses;
+    }
+
+    void addPackets(Player player, List<UniversalPacket> out){
+        UniversalPacket[] encoded = packets;
+        if(encoded == null){
+            synchronized(this){
+                encoded = packets;
+                if(encoded == null){
+                    List<UniversalPacket> list = new ArrayList<>();
+                    protocol.encodeEntry(responses, player, list);
+                    packets = encoded = list.toArray(new UniversalPacket[list.size()]);
+                }
+            }
+        }
+        for(UniversalPacket packet : encoded){
+            out.add(new UniversalPacket(packet.getBuffer(), packet.bb().getOrder(), player.getAddress(), player.getSessionId()));
+        }
+    }
+}
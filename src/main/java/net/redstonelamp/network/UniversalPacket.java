@@ -31,6 +31,7 @@ public class UniversalPacket{
     private byte[] buffer;
     private SocketAddress address;
     private BinaryBuffer bb;
+    private int sessionId = SessionRegistry.NO_SESSION;
 
     /**
      * Create a new UniversalPacket with the specified <code>buffer</code> and belonging to the <code>address</code>.
@@ -59,6 +60,38 @@ public class UniversalPacket{
         bb = BinaryBuffer.wrapBytes(buffer, order);
     }
 
+    /**
+     * Create a new UniversalPacket with the specified <code>buffer</code> in <code>order</code>, belonging to the
+     * session <code>sessionId</code> connecting from <code>address</code>
+     *
+     * @param buffer    The buffer this packet contains.
+     * @param order     The ByteOrder of the above byte array.
+     * @param address   The address this packet came/was sent from.
+     * @param sessionId The id of the session this packet came/was sent from.
+     */
+    public UniversalPacket(byte[] buffer, ByteOrder order, SocketAddress address, int sessionId){
+        this(buffer, order, address);
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Create a new UniversalPacket containing <code>length</code> bytes of <code>buffer</code> starting at
+     * <code>offset</code>, without copying them. <code>getBuffer()</code> copies the bytes out of the array when
+     * it is first called, <code>bb()</code> reads from the array directly.
+     *
+     * @param buffer    The array containing the packet.
+     * @param offset    The offset of the packet in the array.
+     * @param length    The length of the packet.
+     * @param order     The ByteOrder of the packet.
+     * @param address   The address this packet came/was sent from.
+     * @param sessionId The id of the session this packet came/was sent from.
+     */
+    public UniversalPacket(byte[] buffer, int offset, int length, ByteOrder order, SocketAddress address, int sessionId){
+        this.address = address;
+        this.sessionId = sessionId;
+        bb = BinaryBuffer.wrapBytes(buffer, offset, length, order);
+    }
+
     /**
      * Returns the DynamicByteBuffer of the packet <code>buffer</code>. This DOES NOT create a new instance of the buffer.
      *
@@ -77,12 +110,34 @@ public class UniversalPacket{
         return address;
     }
 
+    /**
+     * Get the id of the session this packet came/was sent from.
+     *
+     * @return The session id, or <code>SessionRegistry.NO_SESSION</code> if it is not known.
+     */
+    public int getSessionId(){
+        return sessionId;
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Set the id of the session this packet came/was sent from. Called by the network interfaces.
+     *
+     * @param sessionId The session id.
+     */
+    public void setSessionId(int sessionId){
+        this.sessionId = sessionId;
+    }
+
     /**
      * Get the buffer of this packet.
      *
      * @return The buffer, as a byte array.
      */
     public byte[] getBuffer(){
+        if(buffer == null){ //Wrapped around a part of an array
+            buffer = bb.toArray();
+        }
         return buffer;
     }
 
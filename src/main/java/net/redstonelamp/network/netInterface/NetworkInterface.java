@@ -40,6 +40,29 @@ public interface NetworkInterface{
      */
     void sendPacket(UniversalPacket packet, boolean immediate) throws LowLevelNetworkException;
 
+    /**
+     * Sends the packets of one outbound flush, all belonging to the same session, in order. This method should NOT block.
+     * Interfaces that can write several packets at once should override this method.
+     *
+     * @param packets The <code>UniversalPacket</code>s to be sent.
+     */
+    default void sendPackets(UniversalPacket[] packets) throws LowLevelNetworkException{
+        for(UniversalPacket packet : packets){
+            sendPacket(packet, false);
+        }
+    }
+
+    /**
+     * Get the amount of bytes sent to the session <code>sessionId</code> that the underlying socket has not written yet.
+     * Interfaces that cannot tell return 0.
+     *
+     * @param sessionId The id of the session.
+     * @return The amount of pending outbound bytes.
+     */
+    default long getPendingBytes(int sessionId){
+        return 0;
+    }
+
     /**
      * Shutdown's the interface. Sessions will be closed when the server stops.
      * @throws LowLevelNetworkException
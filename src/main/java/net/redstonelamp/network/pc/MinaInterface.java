@@ -44,6 +44,7 @@ import org.json.simple.JSONObject;
 import net.redstonelamp.Player;
 import net.redstonelamp.Server;
 import net.redstonelamp.network.LowLevelNetworkException;
+import net.redstonelamp.network.SessionRegistry;
 import net.redstonelamp.network.UniversalPacket;
 import net.redstonelamp.network.netInterface.AdvancedNetworkInterface;
 import net.redstonelamp.network.pc.codec.MinecraftPacketHeaderDecoder;
@@ -61,20 +62,23 @@ import net.redstonelamp.ui.Logger;
  * @author RedstoneLamp Team
  */
 public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkInterface{
+    private static final String SESSION_ID = "redstonelamp.sessionId";
     private final Server server;
     private final PCProtocol protocol;
     private final IoAcceptor acceptor;
+    private final SessionRegistry registry;
 
     private Logger logger;
     private String name;
-    private Map<String, IoSession> sessions = new ConcurrentHashMap<>();
-    private Map<String, ProtocolState> states = new ConcurrentHashMap<>();
+    private Map<Integer, IoSession> sessions = new ConcurrentHashMap<>();
+    private Map<Integer, ProtocolState> states = new ConcurrentHashMap<>();
     private Deque<UniversalPacket> packetQueue = new ConcurrentLinkedDeque<>();
     private List<String> block = new CopyOnWriteArrayList<>();
 
     public MinaInterface(Server server, PCProtocol protocol){
         this.server = server;
         this.protocol = protocol;
+        registry = protocol.getManager().getSessions();
 
         setupLogger();
 
@@ -108,34 +112,43 @@ public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkIn
     }
 
     public ProtocolState getProtocolStateOfAddress(SocketAddress address){
-        if(states.containsKey(address.toString())){
-            return states.get(address.toString());
-        }
-        return null;
+        return getProtocolState(registry.getId(address));
+    }
+
+    public ProtocolState getProtocolState(int sessionId){
+        return states.get(sessionId);
     }
 
-    protected void updateProtocolState(ProtocolState state, SocketAddress address){
-        states.put(address.toString(), state);
+    protected void updateProtocolState(ProtocolState state, int sessionId){
+        states.put(sessionId, state);
     }
 
-    public void close(SocketAddress address){
-        IoSession session = sessions.get(address.toString());
+    public void close(int sessionId){
+        IoSession session = sessions.get(sessionId);
         if(session != null){
             session.close(false); //Close after all write requests are complete
         }
     }
 
+    private int getSessionId(IoSession session){
+        Integer id = (Integer) session.getAttribute(SESSION_ID);
+        return id == null ? SessionRegistry.NO_SESSION : id;
+    }
+
     @Override
     public void sessionOpened(IoSession session) throws Exception{
-        sessions.put(session.getRemoteAddress().toString(), session);
+        int id = registry.open(session.getRemoteAddress());
+        session.setAttribute(SESSION_ID, id);
+        sessions.put(id, session);
     }
 
     @Override
     public void sessionIdle(IoSession session, IdleStatus status) throws Exception{
         if(status == IdleStatus.READER_IDLE){ //The client hasn't sent any packets
-            Player player = server.getPlayer(session.getRemoteAddress());
+            int id = getSessionId(session);
+            Player player = server.getPlayer(id);
             if(player != null){
-                ProtocolState state = getProtocolStateOfAddress(session.getRemoteAddress());
+                ProtocolState state = getProtocolState(id);
                 if(state != null && state == ProtocolState.STATE_LOGIN){
                     player.close("", "connection timed out", true);
                 }else if(state != null && state == ProtocolState.STATE_PLAY){
@@ -147,20 +160,18 @@ public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkIn
 
     @Override
     public void sessionClosed(IoSession session) throws Exception{
-        sessions.remove(session.getRemoteAddress().toString());
-        ProtocolState oldState = states.get(session.getRemoteAddress().toString());
-        states.remove(session.getRemoteAddress().toString());
-        Player player = server.getPlayer(session.getRemoteAddress());
-        if(player != null){
-            if(!player.isConnected()){
-                return;
-            }
+        int id = getSessionId(session);
+        sessions.remove(id);
+        ProtocolState oldState = states.remove(id);
+        Player player = server.getPlayer(id);
+        if(player != null && player.isConnected()){
             if(oldState != null && oldState == ProtocolState.STATE_PLAY){
                 player.close("redstonelamp.translation.player.left", "connection closed", false);
             }else if(oldState != null && oldState == ProtocolState.STATE_LOGIN){
                 player.close("", "connection closed", false);
             }
         }
+        registry.close(session.getRemoteAddress(), id);
     }
 
     @Override
@@ -178,6 +189,9 @@ public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkIn
             return;
         }
         UniversalPacket up = (UniversalPacket) message;
+        int sessionId = getSessionId(session);
+        up.setSessionId(sessionId);
+        protocol.getStatistics().recordIn(up);
         int id;
         if(up.getBuffer().length < 1){ //Ignore "empty" packets
             return;
@@ -188,7 +202,7 @@ public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkIn
             logger.warning(e.getClass().getName() + " while reading ID, Dump: " + up.bb().singleLineHexDump());
             throw new LowLevelNetworkException("BufferUnderflowException while reading ID");
         }
-        if(!states.containsKey(session.getRemoteAddress().toString())){
+        if(!states.containsKey(sessionId)){
             switch(id){
                 case PCNetworkConst.HANDSHAKE_HANDSHAKE:
                     int protocol = up.bb().getVarInt();
@@ -209,16 +223,16 @@ public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkIn
                             session.close(false);
                             return;
                         }
-                        states.put(session.getRemoteAddress().toString(), ProtocolState.STATE_LOGIN);
+                        states.put(sessionId, ProtocolState.STATE_LOGIN);
                     }else if(nextState == 1){
                         //Wait for a Status Request until sending the MOTD
-                        states.put(session.getRemoteAddress().toString(), ProtocolState.STATE_STATUS);
+                        states.put(sessionId, ProtocolState.STATE_STATUS);
                     }
                     break;
             }
         }
 
-        if(states.get(session.getRemoteAddress().toString()) == ProtocolState.STATE_STATUS){
+        if(states.get(sessionId) == ProtocolState.STATE_STATUS){
         	BinaryBuffer bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
         	switch(id){
                 case PCNetworkConst.STATUS_REQUEST:
@@ -254,13 +268,36 @@ public class MinaInterface extends IoHandlerAdapter implements AdvancedNetworkIn
 
     @Override
     public void sendPacket(UniversalPacket packet, boolean immediate) throws LowLevelNetworkException{
-        if(sessions.containsKey(packet.getAddress().toString())){
-            sessions.get(packet.getAddress().toString()).write(packet);
+        int id = packet.getSessionId() != SessionRegistry.NO_SESSION ? packet.getSessionId() : registry.getId(packet.getAddress());
+        IoSession session = sessions.get(id);
+        if(session != null){
+            session.write(packet);
+            protocol.getStatistics().recordOut(packet);
             return;
         }
         throw new LowLevelNetworkException("Failed to find session for: " + packet.getAddress().toString());
     }
 
+    @Override
+    public void sendPackets(UniversalPacket[] packets) throws LowLevelNetworkException{
+        UniversalPacket first = packets[0];
+        int id = first.getSessionId() != SessionRegistry.NO_SESSION ? first.getSessionId() : registry.getId(first.getAddress());
+        IoSession session = sessions.get(id);
+        if(session == null){
+            throw new LowLevelNetworkException("Failed to find session for: " + first.getAddress().toString());
+        }
+        for(UniversalPacket packet : packets){
+            session.write(packet);
+            protocol.getStatistics().recordOut(packet);
+        }
+    }
+
+    @Override
+    public long getPendingBytes(int sessionId){
+        IoSession session = sessions.get(sessionId);
+        return session != null ? session.getScheduledWriteBytes() : 0;
+    }
+
     @Override
     public void shutdown() throws LowLevelNetworkException {
         this.acceptor.unbind();
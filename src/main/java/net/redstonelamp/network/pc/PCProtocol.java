@@ -65,13 +65,13 @@ public class PCProtocol extends Protocol implements PCNetworkConst{
 
     @Override
     protected void onClose(Player player){
-        ((MinaInterface) _interface).close(player.getAddress());
+        ((MinaInterface) _interface).close(player.getSessionId());
     }
 
     @Override
     public Request[] handlePacket(UniversalPacket packet){
         List<Request> requests = new ArrayList<>();
-        ProtocolState state = ((MinaInterface) _interface).getProtocolStateOfAddress(packet.getAddress());
+        ProtocolState state = ((MinaInterface) _interface).getProtocolState(packet.getSessionId());
         if(state == null){
             return new Request[0];
         }
@@ -118,11 +118,11 @@ public class PCProtocol extends Protocol implements PCNetworkConst{
 
             case PLAY_SERVERBOUND_CHAT_MESSAGE:
                 String message = packet.bb().getVarString();
-                getServer().broadcastMessage("<" + getServer().getPlayer(packet.getAddress()).getName() + "> " + message);
+                getServer().broadcastMessage("<" + getServer().getPlayer(packet.getSessionId()).getName() + "> " + message);
                 break;
 
             default:
-                getServer().getLogger().debug("Unknown packet: " + packet.bb().singleLineHexDump());
+                getServer().getLogger().debug(() -> "Unknown packet: " + packet.bb().singleLineHexDump());
                 break;
         }
         return requests.toArray(new Request[requests.size()]);
@@ -131,7 +131,7 @@ public class PCProtocol extends Protocol implements PCNetworkConst{
     @Override
     protected UniversalPacket[] _sendResponse(Response response, Player player){
         List<UniversalPacket> packets = new ArrayList<>();
-        ProtocolState state = ((MinaInterface) _interface).getProtocolStateOfAddress(player.getAddress());
+        ProtocolState state = ((MinaInterface) _interface).getProtocolState(player.getSessionId());
         if(state == null){
             return new UniversalPacket[0];
         }
@@ -148,6 +148,11 @@ public class PCProtocol extends Protocol implements PCNetworkConst{
         return packets.toArray(new UniversalPacket[packets.size()]);
     }
 
+    @Override
+    protected Object getEncodingKey(Response response, Player player){
+        return response instanceof ChatResponse ? this : null;
+    }
+
     @Override
     protected UniversalPacket[] _sendQueuedResponses(Response[] responses, Player player){
         return null;
@@ -182,7 +187,7 @@ public class PCProtocol extends Protocol implements PCNetworkConst{
                 bb.putVarString(player.getUuid().toString()); //Login Success packet sends the UUID as a string
                 bb.putVarString(player.getName());
                 packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, player.getAddress()));
-                ((MinaInterface) _interface).updateProtocolState(ProtocolState.STATE_PLAY, player.getAddress());
+                ((MinaInterface) _interface).updateProtocolState(ProtocolState.STATE_PLAY, player.getSessionId());
 
                 packets.addAll(Arrays.asList(sendInitalLoginPackets(lr, player)));
             }
@@ -305,11 +310,11 @@ public class PCProtocol extends Protocol implements PCNetworkConst{
         packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, player.getAddress()));
 
         sender.registerChunkRequests(player, 49);
-        getServer().getTicker().addDelayedTask(tick -> {
+        getServer().getTicker().addDelayedTask(tick -> getLane(player).execute(() -> {
             player.handleRequest(new SpawnRequest());
             player.sendMessage("\u00A74Sorry, Chunk Data got changed in the snapshots.");
             player.sendMessage("\u00A74And we have not implemented it yet.");
-        }, 15);
+        }), 15);
 
         return packets.toArray(new UniversalPacket[packets.size()]);
     }
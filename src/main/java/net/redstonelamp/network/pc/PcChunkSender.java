@@ -20,7 +20,8 @@ import net.redstonelamp.Player;
 import net.redstonelamp.level.ChunkPosition;
 import net.redstonelamp.request.ChunkRequest;
 import net.redstonelamp.request.SpawnRequest;
-import net.redstonelamp.ticker.CallableTask;
+import net.redstonelamp.ticker.BoundTask;
+import net.redstonelamp.ticker.TickPhase;
 
 import java.util.List;
 import java.util.Map;
@@ -40,7 +41,7 @@ public class PcChunkSender{
 
     public PcChunkSender(PCProtocol protocol){
         this.protocol = protocol;
-        protocol.getServer().getTicker().addRepeatingTask(new CallableTask("tick", this), 1);
+        protocol.getServer().getTicker().addPhaseTask(TickPhase.OUTBOUND_FLUSH, new BoundTask("PcChunkSender", this::tick));
     }
 
     public void tick(long tick){
@@ -57,14 +58,16 @@ public class PcChunkSender{
         }
         for(Player player : requestChunks.keySet()){
             if(sent >= REQUESTS_PER_TICK) break;
+            if(protocol.isCongested(player)) continue; //Wait until the client catches up
 
             int pSent = 0;
             List<ChunkPosition> chunks = requestChunks.get(player);
             for(ChunkPosition location : chunks){
                 if(pSent >= pLimit) break;
+                if(sent > 0 && protocol.getServer().getTicker().shouldYield()) break; //Continue next tick
 
                 ChunkRequest r = new ChunkRequest(location);
-                player.handleRequest(r);
+                protocol.handleRequest(player, r);
                 chunks.remove(location);
                 sent++;
                 pSent++;
@@ -73,7 +76,7 @@ public class PcChunkSender{
                 requestChunks.put(player, chunks);
             }else{
                 System.out.println("ready!");
-                player.handleRequest(new SpawnRequest());
+                protocol.handleRequest(player, new SpawnRequest());
                 requestChunks.remove(player);
             }
         }
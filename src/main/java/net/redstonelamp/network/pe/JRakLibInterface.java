@@ -21,7 +21,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteOrder;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import net.beaconpe.jraklib.JRakLib;
@@ -35,6 +37,7 @@ import net.redstonelamp.event.EventPlatform;
 import net.redstonelamp.event.server.ServerReceivePacketEvent;
 import net.redstonelamp.event.server.ServerSendPacketEvent;
 import net.redstonelamp.network.LowLevelNetworkException;
+import net.redstonelamp.network.SessionRegistry;
 import net.redstonelamp.network.UniversalPacket;
 import net.redstonelamp.ui.ConsoleOut;
 import net.redstonelamp.ui.Logger;
@@ -50,6 +53,8 @@ public class JRakLibInterface implements ServerInstance, PEInterface {
     private final JRakLibServer rakLibServer;
     private final ServerHandler handler;
     private final JRakLibPacketHandler packetHandler;
+    private final SessionRegistry sessions;
+    private final Map<String, Integer> sessionIds = new ConcurrentHashMap<>(); //JRakLib identifier -> session id
     private Logger logger;
 
     private Queue<UniversalPacket> packetQueue = new ConcurrentLinkedQueue<>();
@@ -57,6 +62,7 @@ public class JRakLibInterface implements ServerInstance, PEInterface {
     public JRakLibInterface(Server server, PEProtocol protocol) {
         this.server = server;
         this.protocol = protocol;
+        sessions = protocol.getManager().getSessions();
 
         setupLogger();
 
@@ -110,12 +116,16 @@ public class JRakLibInterface implements ServerInstance, PEInterface {
         pk.messageIndex = 0;
         pk.reliability = 2;
         pk.buffer = packet.getBuffer();
-        ServerSendPacketEvent event = new ServerSendPacketEvent(packet);
-        server.callEvent(EventPlatform.POCKET, event);
-        if(!event.isCancelled()) {
-        	logger.buffer("(" + packet.getAddress().toString() + ") PACKET OUT: ", pk.buffer, "");
-        	handler.sendEncapsulated(packet.getAddress().toString(), pk, immediate ? JRakLib.PRIORITY_IMMEDIATE : JRakLib.PRIORITY_NORMAL);
+        if(server.hasListeners(ServerSendPacketEvent.class)) {
+        	ServerSendPacketEvent event = new ServerSendPacketEvent(packet);
+        	server.callEvent(EventPlatform.POCKET, event);
+        	if(event.isCancelled()) {
+        		return;
+        	}
         }
+        protocol.getStatistics().recordOut(packet);
+        logger.buffer(() -> "(" + packet.getAddress().toString() + ") PACKET OUT: ", pk.buffer, "");
+        handler.sendEncapsulated(packet.getAddress().toString(), pk, immediate ? JRakLib.PRIORITY_IMMEDIATE : JRakLib.PRIORITY_NORMAL);
     }
 
     @Override
@@ -128,13 +138,17 @@ public class JRakLibInterface implements ServerInstance, PEInterface {
     @Override
     public void openSession(String identifier, String address, int port, long clientID) {
         logger.debug("(" + identifier + ") openSession: {clientID: " + clientID + "}");
+        sessionIds.put(identifier, sessions.open(new JRakLibIdentifierAddress(identifier)));
         protocol.openSession(identifier);
     }
 
     @Override
     public void closeSession(String identifier, String reason) {
         logger.debug("(" + identifier + ") closeSession: {reason: " + reason + "}");
-        Player player = server.getPlayer(new JRakLibIdentifierAddress(identifier));
+        JRakLibIdentifierAddress address = new JRakLibIdentifierAddress(identifier);
+        Integer cached = sessionIds.remove(identifier);
+        int id = cached != null ? cached : sessions.getId(address);
+        Player player = server.getPlayer(id);
         if(player != null){
             if(player.isSpawned()){
                 player.close("redstonelamp.translation.player.left", reason, false);
@@ -142,27 +156,41 @@ public class JRakLibInterface implements ServerInstance, PEInterface {
                 player.close("", reason, false);
             }
         }
+        sessions.close(address, id);
     }
 
     @Override
     public void handleEncapsulated(String identifier, EncapsulatedPacket packet, int flags) {
-        UniversalPacket pk = new UniversalPacket(packet.buffer, ByteOrder.BIG_ENDIAN, new JRakLibIdentifierAddress(identifier));
-    	ServerReceivePacketEvent event = new ServerReceivePacketEvent(pk);
-        server.callEvent(EventPlatform.POCKET, event);
-        logger.buffer("(" + identifier + ") PACKET IN: ", pk.getBuffer(), "");
-        if(!event.isCancelled()) {
-        	packetQueue.add(pk);
+        JRakLibIdentifierAddress address = new JRakLibIdentifierAddress(identifier);
+        Integer id = sessionIds.get(identifier); //Assigned in openSession()
+        if(id == null){
+            id = sessionIds.computeIfAbsent(identifier, i -> sessions.open(address));
         }
+        UniversalPacket pk = new UniversalPacket(packet.buffer, ByteOrder.BIG_ENDIAN, address, id);
+        protocol.getStatistics().recordIn(pk);
+        logger.buffer(() -> "(" + identifier + ") PACKET IN: ", pk.getBuffer(), "");
+        if(server.hasListeners(ServerReceivePacketEvent.class)) {
+        	ServerReceivePacketEvent event = new ServerReceivePacketEvent(pk);
+        	server.callEvent(EventPlatform.POCKET, event);
+        	if(event.isCancelled()) {
+        		return;
+        	}
+        }
+        packetQueue.add(pk);
     }
 
     @Override
     public void handleRaw(String address, int port, byte[] payload) {
         UniversalPacket packet = new UniversalPacket(payload, new InetSocketAddress(address, port));
-    	ServerReceivePacketEvent event = new ServerReceivePacketEvent(packet);
-        server.callEvent(EventPlatform.POCKET, event);
-        if(!event.isCancelled()) {
-        	packetQueue.add(packet);
+        protocol.getStatistics().recordIn(packet);
+        if(server.hasListeners(ServerReceivePacketEvent.class)) {
+        	ServerReceivePacketEvent event = new ServerReceivePacketEvent(packet);
+        	server.callEvent(EventPlatform.POCKET, event);
+        	if(event.isCancelled()) {
+        		return;
+        	}
         }
+        packetQueue.add(packet);
     }
 
     @Override
@@ -234,6 +262,16 @@ public class JRakLibInterface implements ServerInstance, PEInterface {
         public String getIdentifier(){
             return identifier;
         }
+
+        @Override
+        public boolean equals(Object o){
+            return o instanceof JRakLibIdentifierAddress && identifier.equals(((JRakLibIdentifierAddress) o).identifier);
+        }
+
+        @Override
+        public int hashCode(){
+            return identifier.hashCode();
+        }
     }
 
     /**
@@ -26,6 +26,7 @@ import io.github.jython234.jraklibplus.util.SystemAddress;
 import net.redstonelamp.Player;
 import net.redstonelamp.Server;
 import net.redstonelamp.network.LowLevelNetworkException;
+import net.redstonelamp.network.SessionRegistry;
 import net.redstonelamp.network.UniversalPacket;
 import net.redstonelamp.network.netInterface.AdvancedNetworkInterface;
 import net.redstonelamp.ui.ConsoleOut;
@@ -48,6 +49,7 @@ public class JRakLibPlusInterface implements ServerInterface, AdvancedNetworkInt
     private final Server server;
     private final PEProtocol protocol;
     private final RakNetServer rakServer;
+    private final SessionRegistry sessions;
     private Logger logger;
 
     private Queue<UniversalPacket> packetQueue = new ConcurrentLinkedQueue<>();
@@ -55,6 +57,7 @@ public class JRakLibPlusInterface implements ServerInterface, AdvancedNetworkInt
     public JRakLibPlusInterface(Server server, PEProtocol protocol) {
         this.server = server;
         this.protocol = protocol;
+        sessions = protocol.getManager().getSessions();
         setupLogger();
         RakNetServer.ServerOptions options = new RakNetServer.ServerOptions();
         options.workerThreads = 2;
@@ -102,7 +105,8 @@ public class JRakLibPlusInterface implements ServerInterface, AdvancedNetworkInt
         pkt.reliability = Reliability.RELIABLE;
         pkt.payload = packet.getBuffer();
         session.addEncapsulatedToQueue(pkt, immediate);
-        logger.buffer("("+session.getIpAddress()+":"+session.getPort()+") PACKET OUT: ", packet.getBuffer(), "");
+        protocol.getStatistics().recordOut(packet);
+        logger.buffer(() -> "("+session.getIpAddress()+":"+session.getPort()+") PACKET OUT: ", packet.getBuffer(), "");
     }
 
     @Override
@@ -112,21 +116,28 @@ public class JRakLibPlusInterface implements ServerInterface, AdvancedNetworkInt
 
     @Override
     public void handleEncapsulatedPacket(EncapsulatedPacket encapsulatedPacket, NioSession session) {
-        UniversalPacket packet = new UniversalPacket(encapsulatedPacket.payload, new InetSocketAddress(session.getIpAddress(), session.getPort()));
-        logger.buffer("("+session.getIpAddress()+":"+session.getPort()+") PACKET IN: ", packet.getBuffer(), "");
+        InetSocketAddress address = new InetSocketAddress(session.getIpAddress(), session.getPort());
+        UniversalPacket packet = new UniversalPacket(encapsulatedPacket.payload, address);
+        int id = sessions.getId(address); //Assigned in sessionOpened()
+        packet.setSessionId(id != SessionRegistry.NO_SESSION ? id : sessions.open(address));
+        protocol.getStatistics().recordIn(packet);
+        logger.buffer(() -> "("+session.getIpAddress()+":"+session.getPort()+") PACKET IN: ", packet.getBuffer(), "");
         packetQueue.add(packet);
     }
 
     @Override
     public void sessionOpened(NioSession session) {
         logger.debug("(" + session.getIpAddress() + ":" + session.getPort() + ") Session Opened");
+        sessions.open(new InetSocketAddress(session.getIpAddress(), session.getPort()));
         protocol.openSession(session.getIpAddress() + ":" + session.getPort());
     }
 
     @Override
     public void sessionClosed(NioSession session, String reason) {
         logger.debug("("+session.getIpAddress()+":"+session.getPort()+") Session Closed: {reason: "+reason+"}");
-        Player player = server.getPlayer(new InetSocketAddress(session.getIpAddress(), session.getPort()));
+        InetSocketAddress address = new InetSocketAddress(session.getIpAddress(), session.getPort());
+        int id = sessions.getId(address);
+        Player player = server.getPlayer(id);
         if(player != null){
             if(player.isSpawned()){
                 player.close("redstonelamp.translation.player.left", reason, false);
@@ -134,6 +145,7 @@ public class JRakLibPlusInterface implements ServerInterface, AdvancedNetworkInt
                 player.close("", reason, false);
             }
         }
+        sessions.close(address, id);
     }
 
     /**
@@ -21,6 +21,7 @@ import net.redstonelamp.language.PEMessageTranslator;
 import net.redstonelamp.network.LowLevelNetworkException;
 import net.redstonelamp.network.NetworkManager;
 import net.redstonelamp.network.Protocol;
+import net.redstonelamp.network.SessionRegistry;
 import net.redstonelamp.network.UniversalPacket;
 import net.redstonelamp.network.pe.sub.PESubprotocolManager;
 import net.redstonelamp.network.pe.sub.Subprotocol;
@@ -29,10 +30,13 @@ import net.redstonelamp.network.pe.sub.v34.SubprotocolV34;
 import net.redstonelamp.nio.BinaryBuffer;
 import net.redstonelamp.request.Request;
 import net.redstonelamp.response.Response;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
 
 import java.net.SocketAddress;
 import java.nio.ByteOrder;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -42,7 +46,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class PEProtocol extends Protocol{
 
-    private final Map<String, Subprotocol> addressToSubprotocols = new HashMap<>();
+    private final Map<Integer, Subprotocol> sessionSubprotocols = new ConcurrentHashMap<>();
     private final List<String> hasBeenOpened = new CopyOnWriteArrayList<>(); //List of sessions open
     private final PESubprotocolManager subprotocols;
     private final PeChunkSender sender;
@@ -95,16 +99,19 @@ public class PEProtocol extends Protocol{
 
     @Override
     public Request[] handlePacket(UniversalPacket packet){
-        if(addressToSubprotocols.containsKey(packet.getAddress().toString())){
-            return addressToSubprotocols.get(packet.getAddress().toString()).handlePacket(packet);
+        Subprotocol subprotocol = sessionSubprotocols.get(packet.getSessionId());
+        if(subprotocol != null){
+            return handlePacket(subprotocol, packet);
         }else{
-            getManager().getServer().getLogger().debug("Searching for subprotocol for " + packet.getAddress().toString());
+            getManager().getServer().getLogger().debug(() -> "Searching for subprotocol for " + packet.getAddress().toString());
             Subprotocol s = subprotocols.findSubprotocol(packet);
             if(s != null){
-                addressToSubprotocols.put(packet.getAddress().toString(), s);
-                getManager().getServer().getLogger().debug("Found subprotocol for " + s.getMCPEVersion() + " (" + s.getProtocolVersion() + ")");
+                if(packet.getSessionId() != SessionRegistry.NO_SESSION){
+                    sessionSubprotocols.put(packet.getSessionId(), s);
+                }
+                getManager().getServer().getLogger().debug(() -> "Found subprotocol for " + s.getMCPEVersion() + " (" + s.getProtocolVersion() + ")");
                 packet.bb().setPosition(0); //Reset the position to zero
-                return s.handlePacket(packet); //TODO: Since finding the protocol already processes the packet, we are doing the same thing twice
+                return handlePacket(s, packet); //TODO: Since finding the protocol already processes the packet, we are doing the same thing twice
             }else{
                 getManager().getServer().getLogger().info("Could not find protocol for " + packet.getAddress().toString() + ", disconnecting.");
                 defaultNoSubprotocolFoundDisconnect(packet.getAddress());
@@ -114,20 +121,50 @@ public class PEProtocol extends Protocol{
         }
     }
 
+    private Request[] handlePacket(Subprotocol subprotocol, UniversalPacket packet){
+        if(!Timings.isEnabled() || packet.getBuffer().length == 0){
+            return subprotocol.handlePacket(packet);
+        }
+        Timing timing = subprotocol.getPacketTiming(packet.getBuffer()[0]);
+        long start = timing.start();
+        try{
+            return subprotocol.handlePacket(packet);
+        }finally{
+            timing.stop(start);
+        }
+    }
+
     @Override
     protected UniversalPacket[] _sendResponse(Response response, Player player){
-        if(addressToSubprotocols.containsKey(player.getAddress().toString())){
-            return addressToSubprotocols.get(player.getAddress().toString()).translateResponse(response, player);
+        Subprotocol subprotocol = sessionSubprotocols.get(player.getSessionId());
+        if(subprotocol != null){
+            return subprotocol.translateResponse(response, player);
         }/*else{
             throw new IllegalArgumentException("Player " + player.getAddress().toString() + " not found in subprotocol map!");
         }*/
         return new UniversalPacket[0];
     }
 
+    @Override
+    protected Object getEncodingKey(Response response, Player player){
+        Subprotocol subprotocol = sessionSubprotocols.get(player.getSessionId());
+        return subprotocol != null && subprotocol.canShareTranslation(response) ? subprotocol : null;
+    }
+
+    @Override
+    protected List<UniversalPacket> coalesce(Player player, List<UniversalPacket> packets){
+        Subprotocol subprotocol = sessionSubprotocols.get(player.getSessionId());
+        if(subprotocol != null){
+            return subprotocol.coalesce(packets, player, getManager().getBatchThreshold());
+        }
+        return packets;
+    }
+
     @Override
     protected UniversalPacket[] _sendQueuedResponses(Response[] responses, Player player){
-        if(addressToSubprotocols.containsKey(player.getAddress().toString())){
-            UniversalPacket[] packets = addressToSubprotocols.get(player.getAddress().toString()).translateQueuedResponse(responses, player);
+        Subprotocol subprotocol = sessionSubprotocols.get(player.getSessionId());
+        if(subprotocol != null){
+            UniversalPacket[] packets = subprotocol.translateQueuedResponse(responses, player);
             if(packets == null){
                 List<UniversalPacket> combinedPackets = new ArrayList<>();
                 for(Response r : responses){
@@ -143,7 +180,7 @@ public class PEProtocol extends Protocol{
 
     @Override
     protected void onClose(Player player){
-        addressToSubprotocols.remove(player.getAddress().toString());
+        sessionSubprotocols.remove(player.getSessionId());
         sender.clearData(player);
         ((PEInterface) _interface)._internalClose(player.getAddress(), "server disconnect");
     }
@@ -171,4 +208,8 @@ public class PEProtocol extends Protocol{
     public PeChunkSender getChunkSender(){
         return sender;
     }
+
+    public PESubprotocolManager getSubprotocols(){
+        return subprotocols;
+    }
 }
\ No newline at end of file
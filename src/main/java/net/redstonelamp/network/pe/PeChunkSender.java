@@ -20,7 +20,8 @@ import net.redstonelamp.Player;
 import net.redstonelamp.level.ChunkPosition;
 import net.redstonelamp.request.ChunkRequest;
 import net.redstonelamp.request.SpawnRequest;
-import net.redstonelamp.ticker.CallableTask;
+import net.redstonelamp.ticker.BoundTask;
+import net.redstonelamp.ticker.TickPhase;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -47,7 +48,7 @@ public class PeChunkSender {
 
     public PeChunkSender(PEProtocol protocol){
         this.protocol = protocol;
-        protocol.getServer().getTicker().addRepeatingTask(new CallableTask("tick", this), 1);
+        protocol.getServer().getTicker().addPhaseTask(TickPhase.OUTBOUND_FLUSH, new BoundTask("PeChunkSender", this::tick));
     }
 
     public void tick(long tick) {
@@ -73,14 +74,16 @@ public class PeChunkSender {
 
         for (Player player : requestChunks.keySet()) {
             if (sent >= REQUESTS_PER_TICK) break;
+            if (protocol.isCongested(player)) continue; //Wait until the client catches up
 
             int pSent = 0;
             List<ChunkPosition> chunks = requestChunks.get(player);
             for (ChunkPosition location : chunks) {
                 if (pSent >= pLimit) break;
+                if (sent > 0 && protocol.getServer().getTicker().shouldYield()) break; //Continue next tick
 
                 ChunkRequest r = new ChunkRequest(location);
-                protocol.getManager().getActionPool().execute(() -> player.handleRequest(r));
+                protocol.handleRequest(player, r);
                 chunks.remove(location);
                 sent++;
                 pSent++;
@@ -89,7 +92,7 @@ public class PeChunkSender {
                 requestChunks.put(player, chunks);
             } else if (!player.isSpawned()) {
                 System.out.println("ready!");
-                protocol.getManager().getActionPool().execute(() -> player.handleRequest(new SpawnRequest()));
+                protocol.handleRequest(player, new SpawnRequest());
                 requestChunks.remove(player);
             } else {
                 requestChunks.remove(player);
@@ -0,0 +1,196 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network.pe.sub;
+
+import net.redstonelamp.network.UniversalPacket;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes BATCH_PACKETs. The payload is inflated into a buffer reused by the decoding thread and the packets in it
+ * are handed out as <code>UniversalPacket</code>s wrapped around parts of that buffer, so they are only valid until
+ * the batch is closed. The inflated size and the amount of packets in a batch are limited.
+ * <br>
+ * The last batch decoded by a thread is remembered, so a batch decoded again right away (first when finding the
+ * subprotocol of a new session, then when handling it) is only inflated once. A batch may be decoded while another
+ * one is open, but batches nested deeper than that are rejected. Each thread reuses the same two buffers and
+ * inflaters.
+ *
+ * @author RedstoneLamp Team
+ */
+public class BatchDecoder{
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+    private static final int MAX_OPEN_BATCHES = 2;
+    private final int maxSize;
+    private final int maxPackets;
+    private final ThreadLocal<Batch[]> batches = ThreadLocal.withInitial(() -> new Batch[MAX_OPEN_BATCHES]);
+
+    /**
+     * Create a new <code>BatchDecoder</code>
+     *
+     * @param maxSize    The maximum amount of bytes a batch may inflate to
+     * @param maxPackets The maximum amount of packets in a batch
+     */
+    public BatchDecoder(int maxSize, int maxPackets){
+        this.maxSize = maxSize;
+        this.maxPackets = maxPackets;
+    }
+
+    /**
+     * Inflate the payload of a BATCH_PACKET. The position of <code>packet</code> must be just after the packet id,
+     * at the length of the compressed payload. The returned batch must be closed when it is no longer used.
+     *
+     * @param packet The BATCH_PACKET
+     * @return The decoded batch
+     * @throws DataFormatException If the payload is not valid, inflates to more than the maximum size, or if too many
+     *                             batches are already open on this thread
+     */
+    public Batch decode(UniversalPacket packet) throws DataFormatException{
+        int length = packet.bb().getInt();
+        if(length < 0 || length > packet.bb().remaining()){
+            throw new DataFormatException("Invalid batch payload length: " + length);
+        }
+        int offset = packet.bb().getPosition();
+        packet.bb().skip(length);
+
+        Batch[] slots = batches.get();
+        Batch batch = null;
+        for(int i = 0; i < slots.length && batch == null; i++){
+            if(slots[i] == null){
+                slots[i] = new Batch();
+            }
+            if(!slots[i].open){
+                batch = slots[i];
+            }
+        }
+        if(batch == null){
+            throw new DataFormatException("Batches may only be nested " + (MAX_OPEN_BATCHES - 1) + " level deep");
+        }
+        if(batch.packet == packet){
+            batch.reset();
+            batch.open = true;
+            return batch; //Already inflated
+        }
+        batch.packet = null;
+        batch.inflate(packet.bb().array(), packet.bb().arrayOffset() + offset, length); //Packets may be views of a shared array
+        batch.packet = packet;
+        batch.open = true;
+        return batch;
+    }
+
+    /**
+     * The inflated payload of a BATCH_PACKET
+     */
+    public class Batch implements AutoCloseable{
+        private final Inflater inflater = new Inflater();
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+        private int position;
+        private int packets;
+        private UniversalPacket packet;
+        private boolean open;
+
+        private void inflate(byte[] compressed, int offset, int compressedLength) throws DataFormatException{
+            if(buffer.length > MAX_RETAINED_BUFFER){
+                buffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+            length = 0;
+            reset();
+            try{
+                inflater.setInput(compressed, offset, compressedLength);
+                while(!inflater.finished()){
+                    if(length == buffer.length){
+                        if(buffer.length >= maxSize){
+                            throw new DataFormatException("Batch inflates to more than " + maxSize + " bytes");
+                        }
+                        buffer = Arrays.copyOf(buffer, (int) Math.min((long) maxSize, buffer.length * 2L));
+                    }
+                    int len = inflater.inflate(buffer, length, buffer.length - length);
+                    if(len == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+                        throw new DataFormatException("Truncated batch payload");
+                    }
+                    length += len;
+                }
+            }finally{
+                inflater.reset();
+            }
+        }
+
+        private void reset(){
+            position = 0;
+            packets = 0;
+        }
+
+        /**
+         * Get the next packet of a batch in which each packet is prefixed with its length (protocol 34 and later).
+         *
+         * @return The next packet, or null if there are no more (complete) packets
+         * @throws DataFormatException If the batch contains more packets than allowed
+         */
+        public UniversalPacket nextPacket() throws DataFormatException{
+            if(length - position < 4){
+                return null;
+            }
+            int pkLen = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16) | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+            if(pkLen <= 0 || pkLen > length - position - 4){
+                return null;
+            }
+            countPacket();
+            UniversalPacket up = new UniversalPacket(buffer, position + 4, pkLen, packet.bb().getOrder(), packet.getAddress(), packet.getSessionId());
+            position += 4 + pkLen;
+            return up;
+        }
+
+        /**
+         * Get all of the inflated payload as a single packet, for batches in which packets are not prefixed with
+         * their length (before protocol 34). Call <code>countPacket()</code> for every packet read from it.
+         *
+         * @return The payload
+         */
+        public UniversalPacket getPayload(){
+            return new UniversalPacket(buffer, 0, length, packet.bb().getOrder(), packet.getAddress(), packet.getSessionId());
+        }
+
+        /**
+         * Count a packet read from the payload.
+         *
+         * @throws DataFormatException If the batch contains more packets than allowed
+         */
+        public void countPacket() throws DataFormatException{
+            if(++packets > maxPackets){
+                throw new DataFormatException("Batch contains more than " + maxPackets + " packets");
+            }
+        }
+
+        /**
+         * Get the amount of bytes the payload inflated to
+         *
+         * @return The inflated size
+         */
+        public int getLength(){
+            return length;
+        }
+
+        @Override
+        public void close(){
+            open = false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network.pe.sub;
+
+import net.redstonelamp.level.Chunk;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caches the encoded and compressed packet of each chunk for a subprotocol, so a chunk sent to many players is only
+ * compressed once. An entry is used as long as the chunk's version did not change. A missing entry is encoded by the
+ * thread asking for it, and concurrent requests for the same chunk wait for that encoding instead of repeating it.
+ * Entries are dropped together with their chunk.
+ *
+ * @author RedstoneLamp Team
+ */
+public class ChunkPayloadCache{
+    private final Map<Chunk, Entry> entries = new WeakHashMap<>();
+    private final Function<Chunk, byte[]> encoder;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Create a new <code>ChunkPayloadCache</code>
+     *
+     * @param encoder Encodes a chunk into the packet to be cached
+     */
+    public ChunkPayloadCache(Function<Chunk, byte[]> encoder){
+        this.encoder = encoder;
+    }
+
+    /**
+     * Get the encoded packet of <code>chunk</code>, encoding it if the cached one is missing or outdated. The returned
+     * array is shared and must not be modified.
+     *
+     * @param chunk The chunk
+     * @return The encoded packet
+     */
+    public byte[] get(Chunk chunk){
+        int version = chunk.getVersion(); //Read before encoding, a modification while encoding makes the entry outdated
+        Entry entry;
+        boolean encode = false;
+        synchronized(entries){
+            entry = entries.get(chunk);
+            if(entry == null || entry.version != version){
+                entry = new Entry(version);
+                entries.put(chunk, entry);
+                encode = true;
+                misses++;
+            }else{
+                hits++;
+            }
+        }
+        if(encode){
+            encode(chunk, entry);
+        }
+        return entry.packet.join();
+    }
+
+    private void encode(Chunk chunk, Entry entry){
+        try{
+            entry.packet.complete(encoder.apply(chunk));
+        }catch(Throwable t){
+            entry.packet.completeExceptionally(t);
+            synchronized(entries){
+                entries.remove(chunk, entry);
+            }
+        }
+    }
+
+    /**
+     * Get the amount of chunks served from the cache
+     *
+     * @return The amount of cache hits
+     */
+    public long getHits(){
+        synchronized(entries){
+            return hits;
+        }
+    }
+
+    /**
+     * Get the amount of chunks that had to be encoded
+     *
+     * @return The amount of cache misses
+     */
+    public long getMisses(){
+        synchronized(entries){
+            return misses;
+        }
+    }
+
+    private static class Entry{
+        private final int version;
+        private final CompletableFuture<byte[]> packet = new CompletableFuture<>();
+
+        private Entry(int version){
+            this.version = version;
+        }
+    }
+}
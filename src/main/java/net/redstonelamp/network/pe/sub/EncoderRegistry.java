@@ -0,0 +1,184 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network.pe.sub;
+
+import net.redstonelamp.Player;
+import net.redstonelamp.network.UniversalPacket;
+import net.redstonelamp.nio.BinaryBuffer;
+import net.redstonelamp.response.Response;
+
+import java.net.SocketAddress;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps <code>Response</code> types to the <code>ResponseEncoder</code> of a subprotocol. The encoder of a class is
+ * resolved once, walking up its superclasses, and then looked up in constant time. Encoders must be registered before
+ * the first response is encoded. Encoding is timed by <code>Protocol.encode()</code>, not by the registry.
+ *
+ * @author RedstoneLamp Team
+ */
+public class EncoderRegistry{
+    private static final UniversalPacket[] NO_PACKETS = new UniversalPacket[0];
+
+    private final Map<Class<?>, Registration<?>> registrations = new ConcurrentHashMap<>();
+    private final ClassValue<Registration<?>> lookup = new ClassValue<Registration<?>>(){
+        @Override
+        protected Registration<?> computeValue(Class<?> type){
+            for(Class<?> c = type; c != null && Response.class.isAssignableFrom(c); c = c.getSuperclass()){
+                Registration<?> registration = registrations.get(c);
+                if(registration != null){
+                    return registration;
+                }
+            }
+            return null;
+        }
+    };
+
+    /**
+     * Register the encoder for a type of Response, replacing the previous one.
+     *
+     * @param type     The Response class
+     * @param sizeHint The expected size of the (first) encoded packet, in bytes
+     * @param encoder  The encoder
+     * @param <T>      The type of Response
+     */
+    public <T extends Response> void register(Class<T> type, int sizeHint, ResponseEncoder<T> encoder){
+        registrations.put(type, new Registration<>(sizeHint, encoder));
+    }
+
+    /**
+     * Check if a type of Response can be encoded
+     *
+     * @param type The Response class
+     * @return If an encoder is registered for <code>type</code> or one of its superclasses
+     */
+    public boolean hasEncoder(Class<? extends Response> type){
+        return lookup.get(type) != null;
+    }
+
+    /**
+     * Encode a Response with its registered encoder
+     *
+     * @param response The Response to be encoded
+     * @param player   The Player the response is sent to
+     * @return The encoded packets, or an empty array if there is no encoder for the response
+     */
+    @SuppressWarnings("unchecked")
+    public UniversalPacket[] encode(Response response, Player player){
+        Registration<Response> registration = (Registration<Response>) lookup.get(response.getClass());
+        if(registration == null){
+            return NO_PACKETS;
+        }
+        Output out = new Output(player.getAddress(), player.getSessionId(), registration.sizeHint);
+        registration.encoder.encode(response, player, out);
+        return out.toArray();
+    }
+
+    /**
+     * Get the upper bound of the bytes <code>BinaryBuffer.putString()</code> writes for <code>s</code>
+     *
+     * @param s The String
+     * @return The maximum encoded size of the String, including its length prefix
+     */
+    public static int stringSize(String s){
+        return 2 + (s.length() * 3);
+    }
+
+    private static class Registration<T extends Response>{
+        private final int sizeHint;
+        private final ResponseEncoder<T> encoder;
+
+        private Registration(int sizeHint, ResponseEncoder<T> encoder){
+            this.sizeHint = sizeHint;
+            this.encoder = encoder;
+        }
+    }
+
+    /**
+     * The packets encoded from a single Response. Buffers are allocated with a size hint, and only the bytes written to
+     * them are sent.
+     */
+    public static class Output{
+        private final SocketAddress address;
+        private final int sessionId;
+        private final int sizeHint;
+        private final List<UniversalPacket> packets = new ArrayList<>(2);
+
+        private Output(SocketAddress address, int sessionId, int sizeHint){
+            this.address = address;
+            this.sessionId = sessionId;
+            this.sizeHint = sizeHint;
+        }
+
+        /**
+         * Get the size hint the encoder was registered with
+         *
+         * @return The expected size of the first packet, in bytes
+         */
+        public int getSizeHint(){
+            return sizeHint;
+        }
+
+        /**
+         * Allocate a buffer with the size hint of the encoder
+         *
+         * @return A new buffer
+         */
+        public BinaryBuffer allocate(){
+            return allocate(sizeHint);
+        }
+
+        /**
+         * Allocate a buffer for a packet of the specified size
+         *
+         * @param size The expected size of the packet, in bytes
+         * @return A new buffer
+         */
+        public BinaryBuffer allocate(int size){
+            return BinaryBuffer.newInstance(size, ByteOrder.BIG_ENDIAN);
+        }
+
+        /**
+         * Add the bytes written to <code>bb</code> as a packet
+         *
+         * @param bb The buffer containing the packet
+         */
+        public void add(BinaryBuffer bb){
+            byte[] buffer = bb.toArray();
+            int length = bb.getPosition();
+            add(length == buffer.length ? buffer : Arrays.copyOf(buffer, length));
+        }
+
+        /**
+         * Add an encoded packet
+         *
+         * @param buffer The packet
+         */
+        public void add(byte[] buffer){
+            packets.add(new UniversalPacket(buffer, ByteOrder.BIG_ENDIAN, address, sessionId));
+        }
+
+        private UniversalPacket[] toArray(){
+            return packets.toArray(new UniversalPacket[packets.size()]);
+        }
+    }
+}
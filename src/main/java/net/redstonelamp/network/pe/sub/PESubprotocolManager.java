@@ -18,8 +18,6 @@ package net.redstonelamp.network.pe.sub;
 
 import net.redstonelamp.network.UniversalPacket;
 import net.redstonelamp.network.pe.PEProtocol;
-import net.redstonelamp.nio.BinaryBuffer;
-import net.redstonelamp.utils.CompressionUtils;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,9 +31,11 @@ import java.util.zip.DataFormatException;
 public class PESubprotocolManager{
     private final PEProtocol protocol;
     private final Map<Integer, Subprotocol> subprotocols = new ConcurrentHashMap<>();
+    private final BatchDecoder batchDecoder;
 
     public PESubprotocolManager(PEProtocol protocol){
         this.protocol = protocol;
+        batchDecoder = new BatchDecoder(protocol.getManager().getMaxBatchSize(), protocol.getManager().getMaxBatchPackets());
     }
 
     public void registerSubprotocol(Subprotocol subprotocol){
@@ -49,14 +49,19 @@ public class PESubprotocolManager{
      * @return The correct Subprotocol, or null if none are found
      */
     public Subprotocol findSubprotocol(UniversalPacket up){
+        return findSubprotocol(up, false);
+    }
+
+    private Subprotocol findSubprotocol(UniversalPacket up, boolean inBatch){
         byte id = up.bb().getByte();
         int protocol1, protocol2;
         switch(id){
             case (byte) 0xb1: //Batch Packet ID BEFORE protocol 34
-                byte[] compressedData = up.bb().get(up.bb().getInt());
-                try{
-                    byte[] uncompressedData = CompressionUtils.zlibInflate(compressedData);
-                    return findSubprotocol(new UniversalPacket(uncompressedData, up.bb().getOrder(), up.getAddress()));
+                if(inBatch){
+                    return null; //BatchPacket inside BatchPacket
+                }
+                try(BatchDecoder.Batch batch = batchDecoder.decode(up)){
+                    return findSubprotocol(batch.getPayload(), true);
                 }catch(DataFormatException e){
                     protocol.getManager().getServer().getLogger().error(e.getClass().getName() + " while processing BatchPacket 0xb1!");
                     protocol.getManager().getServer().getLogger().trace(e);
@@ -64,20 +69,20 @@ public class PESubprotocolManager{
                 break;
 
             case (byte) 0x92: //Batch Packet ID AFTER protocol 34
-                compressedData = up.bb().get(up.bb().getInt());
-                try{
-                    byte[] uncompressedData = CompressionUtils.zlibInflate(compressedData);
-                    BinaryBuffer bb = BinaryBuffer.wrapBytes(uncompressedData, up.bb().getOrder());
-                    int pkLen = bb.getInt();
-                    return findSubprotocol(new UniversalPacket(bb.get(pkLen), up.bb().getOrder(), up.getAddress()));
+                if(inBatch){
+                    return null; //BatchPacket inside BatchPacket
+                }
+                try(BatchDecoder.Batch batch = batchDecoder.decode(up)){
+                    UniversalPacket first = batch.nextPacket();
+                    return first != null ? findSubprotocol(first, true) : null;
                 }catch(DataFormatException e){
-                    protocol.getManager().getServer().getLogger().error(e.getClass().getName() + " while processing BatchPacket 0xb1!");
+                    protocol.getManager().getServer().getLogger().error(e.getClass().getName() + " while processing BatchPacket 0x92!");
                     protocol.getManager().getServer().getLogger().trace(e);
                 }
                 break;
 
             case (byte) 0x82: //Login Packet ID BEFORE protocol 34
-                up.bb().getString(); //Username
+                up.bb().skipString(); //Username
                 protocol1 = up.bb().getInt();
                 protocol2 = up.bb().getInt();
                 if(!(subprotocols.containsKey(protocol1) || subprotocols.containsKey(protocol2))){
@@ -91,7 +96,7 @@ public class PESubprotocolManager{
                 }
 
             case (byte) 0x8f: //Login Packet ID AFTER protocol 34
-                up.bb().getString(); //Username
+                up.bb().skipString(); //Username
                 protocol1 = up.bb().getInt();
                 protocol2 = up.bb().getInt();
                 if(!(subprotocols.containsKey(protocol1) || subprotocols.containsKey(protocol2))){
@@ -107,6 +112,33 @@ public class PESubprotocolManager{
         return null;
     }
 
+    /**
+     * Get the decoder used by the subprotocols to decode BATCH_PACKETs
+     *
+     * @return The BatchDecoder
+     */
+    public BatchDecoder getBatchDecoder(){
+        return batchDecoder;
+    }
+
+    /**
+     * Get the amount of chunks served from the chunk caches of all subprotocols
+     *
+     * @return The amount of chunk cache hits
+     */
+    public long getChunkCacheHits(){
+        return subprotocols.values().stream().mapToLong(s -> s.getChunkCache().getHits()).sum();
+    }
+
+    /**
+     * Get the amount of chunks the chunk caches of all subprotocols had to encode
+     *
+     * @return The amount of chunk cache misses
+     */
+    public long getChunkCacheMisses(){
+        return subprotocols.values().stream().mapToLong(s -> s.getChunkCache().getMisses()).sum();
+    }
+
     public PEProtocol getProtocol(){
         return protocol;
     }
@@ -0,0 +1,39 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.network.pe.sub;
+
+import net.redstonelamp.Player;
+import net.redstonelamp.response.Response;
+
+/**
+ * Encodes one type of <code>Response</code> into the packets of a subprotocol.
+ *
+ * @param <T> The type of Response encoded
+ * @author RedstoneLamp Team
+ * @see EncoderRegistry
+ */
+@FunctionalInterface
+public interface ResponseEncoder<T extends Response>{
+    /**
+     * Encode <code>response</code> into packets for <code>player</code>
+     *
+     * @param response The Response to be encoded
+     * @param player   The Player the response is sent to
+     * @param out      The output the encoded packets are added to
+     */
+    void encode(T response, Player player, EncoderRegistry.Output out);
+}
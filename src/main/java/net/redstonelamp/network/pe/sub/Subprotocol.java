@@ -17,10 +17,20 @@
 package net.redstonelamp.network.pe.sub;
 
 import net.redstonelamp.Player;
+import net.redstonelamp.level.Chunk;
 import net.redstonelamp.network.UniversalPacket;
 import net.redstonelamp.network.pe.PEProtocol;
+import net.redstonelamp.nio.BinaryBuffer;
 import net.redstonelamp.request.Request;
 import net.redstonelamp.response.Response;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
+import net.redstonelamp.utils.CompressionUtils;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Represents a sub-protocol of the MCPE protocol. Each subprotocol handles a different version of the MCPE protocol.
@@ -28,12 +38,21 @@ import net.redstonelamp.response.Response;
  * @author RedstoneLamp Team
  */
 public abstract class Subprotocol{
+    /**
+     * The maximum amount of uncompressed bytes put in a single BATCH_PACKET
+     */
+    public static final int MAX_BATCH_PAYLOAD = 262144;
     private final PESubprotocolManager manager;
     private final PEProtocol protocol;
+    private final Timing[] packetTimings = new Timing[256];
+    private final ChunkPayloadCache chunkCache;
+    private final EncoderRegistry encoders;
 
     protected Subprotocol(PESubprotocolManager manager){
         this.manager = manager;
         protocol = manager.getProtocol();
+        chunkCache = new ChunkPayloadCache(chunk -> batch(encodeChunk(chunk)));
+        encoders = new EncoderRegistry();
     }
 
     /**
@@ -44,15 +63,143 @@ public abstract class Subprotocol{
      */
     public abstract Request[] handlePacket(UniversalPacket up);
 
+    /**
+     * Get the ID of this subprotocol's BATCH_PACKET
+     *
+     * @return The BATCH_PACKET id
+     */
+    public abstract byte getBatchPacketId();
+
+    /**
+     * Write a packet into the (uncompressed) payload of a BATCH_PACKET, in the format of this subprotocol.
+     *
+     * @param payload The batch payload
+     * @param packet  The packet to add
+     */
+    protected abstract void writeBatchEntry(BinaryBuffer payload, byte[] packet);
+
+    /**
+     * Put the packets flushed to a player at once into as few BATCH_PACKETs as possible, keeping their order.
+     * Packets that already are batches are left as they are. Runs of packets smaller than <code>threshold</code>
+     * bytes in total are not worth compressing and are returned unchanged.
+     *
+     * @param packets   The packets to be sent, in order
+     * @param player    The player they are sent to
+     * @param threshold The minimum amount of bytes to compress
+     * @return The packets to send instead
+     */
+    public List<UniversalPacket> coalesce(List<UniversalPacket> packets, Player player, int threshold){
+        if(packets.size() < 2 && (packets.isEmpty() || packets.get(0).getBuffer().length < threshold)){
+            return packets;
+        }
+        List<UniversalPacket> coalesced = new ArrayList<>();
+        List<UniversalPacket> run = new ArrayList<>();
+        int runBytes = 0;
+        for(UniversalPacket packet : packets){
+            byte[] buffer = packet.getBuffer();
+            if(buffer.length > 0 && buffer[0] == getBatchPacketId()){
+                addRun(run, runBytes, player, threshold, coalesced);
+                run.clear();
+                runBytes = 0;
+                coalesced.add(packet);
+                continue;
+            }
+            if(runBytes > 0 && runBytes + buffer.length > MAX_BATCH_PAYLOAD){
+                addRun(run, runBytes, player, threshold, coalesced);
+                run.clear();
+                runBytes = 0;
+            }
+            run.add(packet);
+            runBytes += buffer.length;
+        }
+        addRun(run, runBytes, player, threshold, coalesced);
+        return coalesced;
+    }
+
+    private void addRun(List<UniversalPacket> run, int runBytes, Player player, int threshold, List<UniversalPacket> coalesced){
+        if(runBytes < threshold){
+            coalesced.addAll(run);
+            return;
+        }
+        BinaryBuffer payload = BinaryBuffer.newInstance(runBytes + (run.size() * 4), ByteOrder.BIG_ENDIAN);
+        for(UniversalPacket packet : run){
+            writeBatchEntry(payload, packet.getBuffer());
+        }
+        coalesced.add(new UniversalPacket(batch(payload), ByteOrder.BIG_ENDIAN, player.getAddress(), player.getSessionId()));
+    }
+
+    /**
+     * Put a single packet into a BATCH_PACKET
+     *
+     * @param packet The packet
+     * @return The BATCH_PACKET
+     */
+    protected byte[] batch(byte[] packet){
+        BinaryBuffer payload = BinaryBuffer.newInstance(packet.length + 4, ByteOrder.BIG_ENDIAN);
+        writeBatchEntry(payload, packet);
+        return batch(payload);
+    }
+
+    private byte[] batch(BinaryBuffer payload){
+        int length = payload.getPosition();
+        byte[] batch = new byte[5 + CompressionUtils.zlibDeflateBound(length)];
+        int compressed = CompressionUtils.zlibDeflate(payload.toArray(), 0, length, 7, batch, 5);
+        BinaryBuffer bb = BinaryBuffer.wrapBytes(batch, ByteOrder.BIG_ENDIAN);
+        bb.putByte(getBatchPacketId());
+        bb.putInt(compressed);
+        return Arrays.copyOf(batch, 5 + compressed);
+    }
+
+    /**
+     * Encode the FULL_CHUNK_DATA packet of a chunk
+     *
+     * @param chunk The chunk
+     * @return The uncompressed packet
+     */
+    protected abstract byte[] encodeChunk(Chunk chunk);
+
+    /**
+     * Get the compressed BATCH_PACKET containing the FULL_CHUNK_DATA packet of <code>chunk</code>. It is cached until
+     * the chunk is modified, so it is shared by every player the chunk is sent to and must not be modified.
+     *
+     * @param chunk The chunk
+     * @return The BATCH_PACKET
+     */
+    protected byte[] getChunkPacket(Chunk chunk){
+        return chunkCache.get(chunk);
+    }
+
+    /**
+     * Get the cache of compressed chunk packets of this subprotocol
+     *
+     * @return The chunk cache
+     */
+    public ChunkPayloadCache getChunkCache(){
+        return chunkCache;
+    }
+
+    /**
+     * Get the registry of the encoders translating responses for this subprotocol. Subprotocols register their encoders
+     * in their constructor.
+     *
+     * @return The encoder registry
+     */
+    public EncoderRegistry getEncoders(){
+        return encoders;
+    }
+
     /**
      * Translates a  <code>Response</code> to a <code>UniversalPacket</code> array.
      * The Response may translate to more than one packet.
+     * Packets are put into batches when the player's responses are flushed, see <code>coalesce()</code>.
      *
      * @param response The Response to be translated
      * @param player   The Player this response was sent from
      * @return A UniversalPacket array, containing all the packets the response needs.
      */
-    public abstract UniversalPacket[] translateResponse(Response response, Player player);
+    public UniversalPacket[] translateResponse(Response response, Player player){
+        return encoders.encode(response, player);
+    }
 
     /**
      * Some Responses are queued in order to combine them into one or more packets. Some protocols support this, some do not.
@@ -66,6 +213,17 @@ public abstract class Subprotocol{
      */
     public abstract UniversalPacket[] translateQueuedResponse(Response[] responses, Player player);
 
+    /**
+     * Check if the translation of <code>response</code> only depends on the response itself and not on the player it
+     * is sent to, so a broadcast can translate it once and send the same packets to every player of this subprotocol.
+     *
+     * @param response The Response being broadcasted
+     * @return If the translation can be shared between players. By default, nothing is shared.
+     */
+    public boolean canShareTranslation(Response response){
+        return false;
+    }
+
     /**
      * Get the version of MCPE that this subprotocol implements as a String
      *
@@ -80,6 +238,21 @@ public abstract class Subprotocol{
      */
     public abstract int getProtocolVersion();
 
+    /**
+     * Get the <code>Timing</code> the handling of packets with the specified id is recorded in.
+     *
+     * @param id The packet id
+     * @return The Timing for the packet id
+     */
+    public Timing getPacketTiming(byte id){
+        Timing timing = packetTimings[id & 0xFF];
+        if(timing == null){
+            timing = Timings.of(String.format("PE %s handle 0x%02x", getMCPEVersion(), id & 0xFF));
+            packetTimings[id & 0xFF] = timing;
+        }
+        return timing;
+    }
+
     /**
      * Get the SubprotocolManager for this Subprotocol
      *
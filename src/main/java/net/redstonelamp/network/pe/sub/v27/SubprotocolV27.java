@@ -19,19 +19,20 @@ package net.redstonelamp.network.pe.sub.v27;
 import net.redstonelamp.Player;
 import net.redstonelamp.block.Block;
 import net.redstonelamp.item.Item;
+import net.redstonelamp.level.Chunk;
 import net.redstonelamp.level.Level;
 import net.redstonelamp.level.position.BlockPosition;
 import net.redstonelamp.level.position.Position;
 import net.redstonelamp.math.Vector3;
 import net.redstonelamp.network.UniversalPacket;
+import net.redstonelamp.network.pe.sub.BatchDecoder;
+import net.redstonelamp.network.pe.sub.EncoderRegistry;
 import net.redstonelamp.network.pe.sub.PESubprotocolManager;
 import net.redstonelamp.network.pe.sub.Subprotocol;
 import net.redstonelamp.nio.BinaryBuffer;
 import net.redstonelamp.request.*;
 import net.redstonelamp.response.*;
-import net.redstonelamp.utils.CompressionUtils;
 
-import java.net.SocketAddress;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -49,6 +50,7 @@ public class SubprotocolV27 extends Subprotocol implements ProtocolConst27{
 
     public SubprotocolV27(PESubprotocolManager manager){
         super(manager);
+        registerEncoders();
     }
 
     @Override
@@ -87,7 +89,7 @@ public class SubprotocolV27 extends Subprotocol implements ProtocolConst27{
                 requests.add(cr);
                 break;
             case MOVE_PLAYER_PACKET:
-                Position position = new Position(getProtocol().getServer().getPlayer(up.getAddress()).getPosition().getLevel());
+                Position position = new Position(getProtocol().getServer().getPlayer(up.getSessionId()).getPosition().getLevel());
                 up.bb().skip(8); //Skip entity ID
                 float x = up.bb().getFloat();
                 float y = up.bb().getFloat();
@@ -150,7 +152,7 @@ public class SubprotocolV27 extends Subprotocol implements ProtocolConst27{
                 int blockX = up.bb().getInt();
                 int blockZ = up.bb().getInt();
                 int blockY = up.bb().getByte();
-                Level level = getProtocol().getServer().getPlayer(up.getAddress()).getPosition().getLevel();
+                Level level = getProtocol().getServer().getPlayer(up.getSessionId()).getPosition().getLevel();
                 requests.add(new RemoveBlockRequest(new BlockPosition(blockX, blockY, blockZ, level)));
                 break;
             default:
@@ -159,296 +161,294 @@ public class SubprotocolV27 extends Subprotocol implements ProtocolConst27{
         return requests.toArray(new Request[requests.size()]);
     }
 
-    @Override
-    public UniversalPacket[] translateResponse(Response response, Player player){
-        SocketAddress address = player.getAddress();
-        List<UniversalPacket> packets = new CopyOnWriteArrayList<>();
-        BinaryBuffer bb;
-        if(response instanceof LoginResponse){
-            LoginResponse lr = (LoginResponse) response;
-            if(lr.loginAllowed){
-                bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-                bb.putByte(PLAY_STATUS_PACKET);
-                bb.putInt(0); //LOGIN_SUCCESS
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(48, ByteOrder.BIG_ENDIAN);
-                bb.putByte(START_GAME_PACKET);
-                bb.putInt(-1); //seed
-                bb.putInt(lr.generator);
-                bb.putInt(lr.gamemode);
-                bb.putLong(lr.entityID);
-                bb.putInt(lr.spawnX);
-                bb.putInt(lr.spawnY);
-                bb.putInt(lr.spawnZ);
-                bb.putFloat(lr.x);
-                bb.putFloat(lr.y);
-                bb.putFloat(lr.z);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(6, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_TIME_PACKET);
-                bb.putInt(player.getPosition().getLevel().getTime());
-                bb.putByte((byte) 1);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(10, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_SPAWN_POSITION_PACKET);
-                bb.putInt(lr.spawnX);
-                bb.putInt(lr.spawnZ);
-                bb.putByte((byte) lr.spawnY);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_HEALTH_PACKET);
-                bb.putInt(lr.health);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_DIFFICULTY_PACKET);
-                bb.putInt(1); //TODO: Correct difficulty
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                //TODO: If creative, send items
-
-                getProtocol().getChunkSender().registerChunkRequests(getProtocol().getServer().getPlayer(address), 96);
-            }else{
-                String message;
-                switch(lr.loginNotAllowedReason){
-                    case LoginResponse.DEFAULT_loginNotAllowedReason:
-                        message = "disconnectionScreen.noReason";
-                        break;
-
-                    case "redstonelamp.loginFailed.serverFull":
-                        message = "disconnectionScreen.serverFull";
-                        break;
+    private void registerEncoders(){
+        EncoderRegistry encoders = getEncoders();
+        encoders.register(LoginResponse.class, 5, this::encodeLogin);
+        encoders.register(DisconnectResponse.class, 64, this::encodeDisconnect);
+        encoders.register(ChunkResponse.class, 0, this::encodeChunkResponse);
+        encoders.register(SpawnResponse.class, 5, this::encodeSpawn);
+        encoders.register(TeleportResponse.class, 35, this::encodeTeleport);
+        encoders.register(ChatResponse.class, 64, this::encodeChat);
+        encoders.register(AddPlayerResponse.class, 96, this::encodeAddPlayer);
+        encoders.register(PopupResponse.class, 64, this::encodePopup);
+        encoders.register(RemovePlayerResponse.class, 17, this::encodeRemovePlayer);
+        encoders.register(PlayerMoveResponse.class, 35, this::encodePlayerMove);
+        encoders.register(PlayerEquipmentResponse.class, 15, this::encodePlayerEquipment);
+        encoders.register(AnimateResponse.class, 10, this::encodeAnimate);
+        encoders.register(BlockPlaceResponse.class, 15, this::encodeBlockPlace);
+        encoders.register(RemoveBlockResponse.class, 15, this::encodeRemoveBlock);
+    }
 
-                    default:
-                        message = lr.loginNotAllowedReason;
-                }
+    private void encodeLogin(LoginResponse lr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb;
+        if(lr.loginAllowed){
+            bb = out.allocate();
+            bb.putByte(PLAY_STATUS_PACKET);
+            bb.putInt(0); //LOGIN_SUCCESS
+            out.add(bb);
+
+            bb = out.allocate(45);
+            bb.putByte(START_GAME_PACKET);
+            bb.putInt(-1); //seed
+            bb.putInt(lr.generator);
+            bb.putInt(lr.gamemode);
+            bb.putLong(lr.entityID);
+            bb.putInt(lr.spawnX);
+            bb.putInt(lr.spawnY);
+            bb.putInt(lr.spawnZ);
+            bb.putFloat(lr.x);
+            bb.putFloat(lr.y);
+            bb.putFloat(lr.z);
+            out.add(bb);
+
+            bb = out.allocate(6);
+            bb.putByte(SET_TIME_PACKET);
+            bb.putInt(player.getPosition().getLevel().getTime());
+            bb.putByte((byte) 1);
+            out.add(bb);
+
+            bb = out.allocate(10);
+            bb.putByte(SET_SPAWN_POSITION_PACKET);
+            bb.putInt(lr.spawnX);
+            bb.putInt(lr.spawnZ);
+            bb.putByte((byte) lr.spawnY);
+            out.add(bb);
+
+            bb = out.allocate(5);
+            bb.putByte(SET_HEALTH_PACKET);
+            bb.putInt(lr.health);
+            out.add(bb);
+
+            bb = out.allocate(5);
+            bb.putByte(SET_DIFFICULTY_PACKET);
+            bb.putInt(1); //TODO: Correct difficulty
+            out.add(bb);
+
+            //TODO: If creative, send items
+
+            getProtocol().getChunkSender().registerChunkRequests(player, 96);
+        }else{
+            String message;
+            switch(lr.loginNotAllowedReason){
+                case LoginResponse.DEFAULT_loginNotAllowedReason:
+                    message = "disconnectionScreen.noReason";
+                    break;
 
-                bb = BinaryBuffer.newInstance(3 + message.getBytes().length, ByteOrder.BIG_ENDIAN);
-                bb.putByte(DISCONNECT_PACKET);
-                bb.putString(message);
+                case "redstonelamp.loginFailed.serverFull":
+                    message = "disconnectionScreen.serverFull";
+                    break;
 
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-            }
-        }else if(response instanceof DisconnectResponse){
-            DisconnectResponse dr = (DisconnectResponse) response;
-            if(dr.notifyClient){
-                bb = BinaryBuffer.newInstance(3 + dr.reason.getBytes().length, ByteOrder.BIG_ENDIAN);
-                bb.putByte(DISCONNECT_PACKET);
-                bb.putString(dr.reason);
-
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-            }
-        }else if(response instanceof ChunkResponse){
-            ChunkResponse cr = (ChunkResponse) response;
-
-            BinaryBuffer ordered = BinaryBuffer.newInstance(83200, ByteOrder.BIG_ENDIAN);
-            ordered.put(cr.chunk.getBlockIds());
-            ordered.put(cr.chunk.getBlockMeta());
-            ordered.put(cr.chunk.getSkylight());
-            ordered.put(cr.chunk.getBlocklight());
-            ordered.put(cr.chunk.getHeightmap());
-            ordered.put(cr.chunk.getBiomeColors());
-
-            byte[] orderedData = ordered.toArray();
-
-            bb = BinaryBuffer.newInstance(83213, ByteOrder.BIG_ENDIAN);
-            bb.putByte(FULL_CHUNK_DATA_PACKET);
-            bb.putInt(cr.chunk.getPosition().getX());
-            bb.putInt(cr.chunk.getPosition().getZ());
-            bb.putInt(orderedData.length);
-            bb.put(orderedData);
-
-            packets.add(new UniversalPacket(Arrays.copyOf(bb.toArray(), bb.getPosition()), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof SpawnResponse){
-            SpawnResponse sr = (SpawnResponse) response;
-
-            int flags = 0;
-            flags |= 0x20;
-            if(player.getGamemode() == 1){
-                flags |= 0x80; //allow flight
+                default:
+                    message = lr.loginNotAllowedReason;
             }
-            bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-            bb.putByte(ADVENTURE_SETTINGS_PACKET);
-            bb.putInt(flags);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
 
+            bb = out.allocate(1 + EncoderRegistry.stringSize(message));
+            bb.putByte(DISCONNECT_PACKET);
+            bb.putString(message);
+            out.add(bb);
+        }
+    }
 
-            byte[] metadata = player.getMetadata().toBytes();
-            bb = BinaryBuffer.newInstance(9 + metadata.length, ByteOrder.BIG_ENDIAN);
-            bb.putByte(SET_ENTITY_DATA_PACKET);
-            bb.putLong(0); //Player Entity ID is always zero to themselves
-            bb.put(metadata);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
+    private void encodeDisconnect(DisconnectResponse dr, Player player, EncoderRegistry.Output out){
+        if(dr.notifyClient){
+            BinaryBuffer bb = out.allocate(1 + EncoderRegistry.stringSize(dr.reason));
+            bb.putByte(DISCONNECT_PACKET);
+            bb.putString(dr.reason);
+            out.add(bb);
+        }
+    }
 
+    private void encodeChunkResponse(ChunkResponse cr, Player player, EncoderRegistry.Output out){
+        out.add(getChunkPacket(cr.chunk)); //Cached, already compressed
+    }
 
-            bb = BinaryBuffer.newInstance(6, ByteOrder.BIG_ENDIAN);
-            bb.putByte(SET_TIME_PACKET);
-            bb.putInt(player.getPosition().getLevel().getTime());
-            bb.putByte((byte) 1);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
+    private void encodeSpawn(SpawnResponse sr, Player player, EncoderRegistry.Output out){
+        int flags = 0;
+        flags |= 0x20;
+        if(player.getGamemode() == 1){
+            flags |= 0x80; //allow flight
+        }
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(ADVENTURE_SETTINGS_PACKET);
+        bb.putInt(flags);
+        out.add(bb);
+
+        byte[] metadata = player.getMetadata().toBytes();
+        bb = out.allocate(9 + metadata.length);
+        bb.putByte(SET_ENTITY_DATA_PACKET);
+        bb.putLong(0); //Player Entity ID is always zero to themselves
+        bb.put(metadata);
+        out.add(bb);
+
+        bb = out.allocate(6);
+        bb.putByte(SET_TIME_PACKET);
+        bb.putInt(player.getPosition().getLevel().getTime());
+        bb.putByte((byte) 1);
+        out.add(bb);
+
+        bb = out.allocate(13);
+        bb.putByte(RESPAWN_PACKET);
+        bb.putFloat((float) sr.spawnPosition.getX());
+        bb.putFloat((float) sr.spawnPosition.getY());
+        bb.putFloat((float) sr.spawnPosition.getZ());
+        out.add(bb);
+
+        bb = out.allocate(5);
+        bb.putByte(PLAY_STATUS_PACKET);
+        bb.putInt(3); //PLAY_SPAWN
+        out.add(bb);
+    }
 
-            bb = BinaryBuffer.newInstance(13, ByteOrder.BIG_ENDIAN);
-            bb.putByte(RESPAWN_PACKET);
-            bb.putFloat((float) sr.spawnPosition.getX());
-            bb.putFloat((float) sr.spawnPosition.getY());
-            bb.putFloat((float) sr.spawnPosition.getZ());
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
+    private void encodeTeleport(TeleportResponse tr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(MOVE_PLAYER_PACKET);
+        bb.putLong(player.getEntityID());
+        bb.putFloat((float) tr.pos.getX());
+        bb.putFloat((float) tr.pos.getY());
+        bb.putFloat((float) tr.pos.getZ());
+        bb.putFloat(tr.pos.getYaw());
+        bb.putFloat(tr.bodyYaw);
+        bb.putFloat(tr.pos.getPitch());
+        bb.putByte((byte) 0); //MODE_NORMAL
+        bb.putByte((byte) (tr.onGround ? 1 : 0));
+        out.add(bb);
+    }
 
-            bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-            bb.putByte(PLAY_STATUS_PACKET);
-            bb.putInt(3); //PLAY_SPAWN
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof TeleportResponse){
-            TeleportResponse tr = (TeleportResponse) response;
-            bb = BinaryBuffer.newInstance(35, ByteOrder.BIG_ENDIAN);
-            bb.putByte(MOVE_PLAYER_PACKET);
-            bb.putLong(player.getEntityID());
-            bb.putFloat((float) tr.pos.getX());
-            bb.putFloat((float) tr.pos.getY());
-            bb.putFloat((float) tr.pos.getZ());
-            bb.putFloat(tr.pos.getYaw());
-            bb.putFloat(tr.bodyYaw);
-            bb.putFloat(tr.pos.getPitch());
-            bb.putByte((byte) 0); //MODE_NORMAL
-            bb.putByte((byte) (tr.onGround ? 1 : 0));
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof ChatResponse){
-            ChatResponse cr = (ChatResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN); //Self-expand
-            bb.putByte(TEXT_PACKET);
-            if(cr.translation != ChatResponse.DEFAULT_translation){
-                bb.putByte(TEXT_TRANSLATION); //TYPE_TRANSLATION
-                bb.putString(cr.translation.message);
-                bb.putByte((byte) cr.translation.params.length);
-                for(String param : cr.translation.params){
-                    bb.putString(param);
-                }
-            }else if(!cr.source.isEmpty()){
-                bb.putByte(TEXT_CHAT); //TYPE_CHAT
-                bb.putString(cr.source);
-                bb.putString(cr.message);
-            }else{
-                bb.putByte(TEXT_RAW); //TYPE_RAW
-                bb.putString(cr.message);
+    private void encodeChat(ChatResponse cr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb;
+        if(cr.translation != ChatResponse.DEFAULT_translation){
+            int size = 3 + EncoderRegistry.stringSize(cr.translation.message);
+            for(String param : cr.translation.params){
+                size += EncoderRegistry.stringSize(param);
             }
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof AddPlayerResponse){
-            Player p = ((AddPlayerResponse) response).player;
-            byte[] meta = p.getMetadata().toBytes();
-            //bb = BinaryBuffer.newInstance(56 + p.getSkin().length + p.getNametag().getBytes().length + meta.length, ByteOrder.BIG_ENDIAN);
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(ADD_PLAYER_PACKET);
-            bb.putLong(p.getEntityID()); //Prevent client from knowing the real clientID
-            bb.putString(p.getName());
-            bb.putLong(p.getEntityID());
-            bb.putFloat((float) p.getPosition().getX());
-            bb.putFloat((float) p.getPosition().getY());
-            bb.putFloat((float) p.getPosition().getZ());
-            bb.putFloat(0f); //Speed X
-            bb.putFloat(0f); //Speed y
-            bb.putFloat(0f); //speed z
-            bb.putFloat(p.getPosition().getYaw());
-            bb.putFloat(p.getPosition().getYaw()); //TODO: head yaw
-            bb.putFloat(p.getPosition().getPitch());
-            bb.putShort((short) 1); // item
-            bb.putShort((short) 0); // meta item
-            bb.putByte((byte) (p.isSlim() ? 1 : 0));
-            bb.putShort((short) p.getSkin().length);
-            bb.put(p.getSkin());
-            bb.put(meta);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof PopupResponse){
-            PopupResponse pr = (PopupResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
+            bb = out.allocate(size);
             bb.putByte(TEXT_PACKET);
-            bb.putByte(TEXT_POPUP); // TYPE_POPUP
-            bb.putString(pr.message);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof RemovePlayerResponse){
-            RemovePlayerResponse rpp = (RemovePlayerResponse) response;
-            bb = BinaryBuffer.newInstance(9, ByteOrder.BIG_ENDIAN);
-            bb.putByte(REMOVE_PLAYER_PACKET);
-            bb.putLong(rpp.player.getEntityID());
-            bb.putLong(rpp.player.getEntityID());
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof PlayerMoveResponse){
-            PlayerMoveResponse pmr = (PlayerMoveResponse) response;
-            bb = BinaryBuffer.newInstance(35, ByteOrder.BIG_ENDIAN);
-            bb.putByte(MOVE_PLAYER_PACKET);
-            bb.putLong(pmr.entityID);
-            bb.putFloat((float) pmr.pos.getX());
-            bb.putFloat((float) pmr.pos.getY());
-            bb.putFloat((float) pmr.pos.getZ());
-            bb.putFloat(pmr.pos.getYaw());
-            bb.putFloat(pmr.bodyYaw);
-            bb.putFloat(pmr.pos.getPitch());
-            bb.putByte((byte) 0); //MODE_NORMAL
-            bb.putByte((byte) (pmr.onGround ? 1 : 0));
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof PlayerEquipmentResponse){
-            PlayerEquipmentResponse er = (PlayerEquipmentResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(PLAYER_EQUIPMENT_PACKET);
-            bb.putLong(player.getEntityID());
-            bb.putShort((short) er.item.getId());
-            bb.putShort(er.item.getMeta());
-            bb.putByte((byte) 0); //slot
-            bb.putByte((byte) 0); //selectedSlot
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof AnimateResponse){
-            AnimateResponse ar = (AnimateResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(ANIMATE_PACKET);
-            switch(ar.actionType){
-                case SWING_ARM:
-                    bb.putByte((byte) 1);
-                    break;
-                case WAKE_UP:
-                    bb.putByte((byte) 3);
-                    break;
+            bb.putByte(TEXT_TRANSLATION); //TYPE_TRANSLATION
+            bb.putString(cr.translation.message);
+            bb.putByte((byte) cr.translation.params.length);
+            for(String param : cr.translation.params){
+                bb.putString(param);
             }
-            bb.putLong(player.getEntityID());
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof BlockPlaceResponse){
-            BlockPlaceResponse bpr = (BlockPlaceResponse) response;
-            bb = BinaryBuffer.newInstance(16, ByteOrder.BIG_ENDIAN);
-            bb.putByte(UPDATE_BLOCK_PACKET);
-            bb.putInt(1);
-            bb.putInt(bpr.position.getX());
-            bb.putInt(bpr.position.getZ());
-            bb.putByte((byte) bpr.position.getY());
-            bb.putByte((byte) bpr.block.getId());
-            bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) bpr.block.getMeta()));
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof RemoveBlockResponse){
-            RemoveBlockResponse rbr = (RemoveBlockResponse) response;
-            bb = BinaryBuffer.newInstance(16, ByteOrder.BIG_ENDIAN);
-            bb.putByte(UPDATE_BLOCK_PACKET);
-            bb.putInt(1);
-            bb.putInt(rbr.position.getX());
-            bb.putInt(rbr.position.getZ());
-            bb.putByte((byte) rbr.position.getY());
-            bb.putByte((byte) 0); //AIR
-            bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) 0));
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
+        }else if(!cr.source.isEmpty()){
+            bb = out.allocate(2 + EncoderRegistry.stringSize(cr.source) + EncoderRegistry.stringSize(cr.message));
+            bb.putByte(TEXT_PACKET);
+            bb.putByte(TEXT_CHAT); //TYPE_CHAT
+            bb.putString(cr.source);
+            bb.putString(cr.message);
+        }else{
+            bb = out.allocate(2 + EncoderRegistry.stringSize(cr.message));
+            bb.putByte(TEXT_PACKET);
+            bb.putByte(TEXT_RAW); //TYPE_RAW
+            bb.putString(cr.message);
         }
+        out.add(bb);
+    }
 
-        //Compress packets
-        packets.stream().filter(packet -> packet.getBuffer().length >= 512 && packet.getBuffer()[0] != BATCH_PACKET).forEach(packet -> { //Compress packets
-            byte[] compressed = CompressionUtils.zlibDeflate(packet.getBuffer(), 7);
-            BinaryBuffer batch = BinaryBuffer.newInstance(5 + compressed.length, ByteOrder.BIG_ENDIAN);
-            batch.putByte(BATCH_PACKET);
-            batch.putInt(compressed.length);
-            batch.put(compressed);
-
-            packets.remove(packet);
-            packets.add(new UniversalPacket(batch.toArray(), ByteOrder.BIG_ENDIAN, address));
-        });
-        return packets.toArray(new UniversalPacket[packets.size()]);
+    private void encodeAddPlayer(AddPlayerResponse apr, Player player, EncoderRegistry.Output out){
+        Player p = apr.player;
+        byte[] meta = p.getMetadata().toBytes();
+        BinaryBuffer bb = out.allocate(out.getSizeHint() + EncoderRegistry.stringSize(p.getName()) + p.getSkin().length + meta.length);
+        bb.putByte(ADD_PLAYER_PACKET);
+        bb.putLong(p.getEntityID()); //Prevent client from knowing the real clientID
+        bb.putString(p.getName());
+        bb.putLong(p.getEntityID());
+        bb.putFloat((float) p.getPosition().getX());
+        bb.putFloat((float) p.getPosition().getY());
+        bb.putFloat((float) p.getPosition().getZ());
+        bb.putFloat(0f); //Speed X
+        bb.putFloat(0f); //Speed y
+        bb.putFloat(0f); //speed z
+        bb.putFloat(p.getPosition().getYaw());
+        bb.putFloat(p.getPosition().getYaw()); //TODO: head yaw
+        bb.putFloat(p.getPosition().getPitch());
+        bb.putShort((short) 1); // item
+        bb.putShort((short) 0); // meta item
+        bb.putByte((byte) (p.isSlim() ? 1 : 0));
+        bb.putShort((short) p.getSkin().length);
+        bb.put(p.getSkin());
+        bb.put(meta);
+        out.add(bb);
+    }
+
+    private void encodePopup(PopupResponse pr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate(2 + EncoderRegistry.stringSize(pr.message));
+        bb.putByte(TEXT_PACKET);
+        bb.putByte(TEXT_POPUP); // TYPE_POPUP
+        bb.putString(pr.message);
+        out.add(bb);
+    }
+
+    private void encodeRemovePlayer(RemovePlayerResponse rpr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(REMOVE_PLAYER_PACKET);
+        bb.putLong(rpr.player.getEntityID());
+        bb.putLong(rpr.player.getEntityID());
+        out.add(bb);
+    }
+
+    private void encodePlayerMove(PlayerMoveResponse pmr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(MOVE_PLAYER_PACKET);
+        bb.putLong(pmr.entityID);
+        bb.putFloat((float) pmr.pos.getX());
+        bb.putFloat((float) pmr.pos.getY());
+        bb.putFloat((float) pmr.pos.getZ());
+        bb.putFloat(pmr.pos.getYaw());
+        bb.putFloat(pmr.bodyYaw);
+        bb.putFloat(pmr.pos.getPitch());
+        bb.putByte((byte) 0); //MODE_NORMAL
+        bb.putByte((byte) (pmr.onGround ? 1 : 0));
+        out.add(bb);
+    }
+
+    private void encodePlayerEquipment(PlayerEquipmentResponse er, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(PLAYER_EQUIPMENT_PACKET);
+        bb.putLong(player.getEntityID());
+        bb.putShort((short) er.item.getId());
+        bb.putShort(er.item.getMeta());
+        bb.putByte((byte) 0); //slot
+        bb.putByte((byte) 0); //selectedSlot
+        out.add(bb);
+    }
+
+    private void encodeAnimate(AnimateResponse ar, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(ANIMATE_PACKET);
+        switch(ar.actionType){
+            case SWING_ARM:
+                bb.putByte((byte) 1);
+                break;
+            case WAKE_UP:
+                bb.putByte((byte) 3);
+                break;
+        }
+        bb.putLong(player.getEntityID());
+        out.add(bb);
+    }
+
+    private void encodeBlockPlace(BlockPlaceResponse bpr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(UPDATE_BLOCK_PACKET);
+        bb.putInt(1);
+        bb.putInt(bpr.position.getX());
+        bb.putInt(bpr.position.getZ());
+        bb.putByte((byte) bpr.position.getY());
+        bb.putByte((byte) bpr.block.getId());
+        bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) bpr.block.getMeta()));
+        out.add(bb);
+    }
+
+    private void encodeRemoveBlock(RemoveBlockResponse rbr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(UPDATE_BLOCK_PACKET);
+        bb.putInt(1);
+        bb.putInt(rbr.position.getX());
+        bb.putInt(rbr.position.getZ());
+        bb.putByte((byte) rbr.position.getY());
+        bb.putByte((byte) 0); //AIR
+        bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) 0));
+        out.add(bb);
     }
 
     @Override
@@ -491,37 +491,25 @@ public class SubprotocolV27 extends Subprotocol implements ProtocolConst27{
             packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, player.getAddress()));
         }
 
-        //Compress packets
-        packets.stream().filter(packet -> packet.getBuffer().length >= 512 && packet.getBuffer()[0] != BATCH_PACKET).forEach(packet -> { //Compress packets
-            byte[] compressed = CompressionUtils.zlibDeflate(packet.getBuffer(), 7);
-            BinaryBuffer batch = BinaryBuffer.newInstance(5 + compressed.length, ByteOrder.BIG_ENDIAN);
-            batch.putByte(BATCH_PACKET);
-            batch.putInt(compressed.length);
-            batch.put(compressed);
-
-            packets.remove(packet);
-            packets.add(new UniversalPacket(batch.toArray(), ByteOrder.BIG_ENDIAN, player.getAddress()));
-        });
+        //Packets are put into batches when the player's responses are flushed, see coalesce()
         return packets.toArray(new UniversalPacket[packets.size()]);
     }
 
     private Request[] processBatch(UniversalPacket up){
         List<Request> requests = new ArrayList<>();
-        int len = up.bb().getInt();
-        byte[] compressed = up.bb().get(len);
-        try{
-            byte[] uncompressed = CompressionUtils.zlibInflate(compressed);
-            BinaryBuffer bb = BinaryBuffer.wrapBytes(uncompressed, up.bb().getOrder());
-            while(bb.getPosition() < uncompressed.length){
-                byte id = bb.getByte();
-                if(id == BATCH_PACKET){
+        try(BatchDecoder.Batch batch = getManager().getBatchDecoder().decode(up)){
+            UniversalPacket pk = batch.getPayload();
+            while(pk.bb().remaining() > 0){
+                batch.countPacket();
+                int start = pk.bb().getPosition();
+                if(pk.bb().getByte() == BATCH_PACKET){
                     throw new IllegalStateException("BatchPacket found inside BatchPacket!");
                 }
-                int start = bb.getPosition();
-                UniversalPacket pk = new UniversalPacket(uncompressed, up.bb().getOrder(), up.getAddress());
-                pk.bb().setPosition(start - 1); //subtract by one so the handler can read the packet ID
+                pk.bb().setPosition(start); //Reset so the handler can read the packet ID
                 requests.add(handlePacket(pk)[0]);
-                bb.setPosition(pk.bb().getPosition());
+                if(pk.bb().getPosition() == start){
+                    break; //The handler did not read the packet, the rest of the batch can't be found
+                }
             }
         }catch(DataFormatException e){
             getProtocol().getManager().getServer().getLogger().warning(e.getClass().getName() + " while handling BatchPacket: " + e.getMessage());
@@ -534,6 +522,43 @@ public class SubprotocolV27 extends Subprotocol implements ProtocolConst27{
         }
     }
 
+    @Override
+    public boolean canShareTranslation(Response response){
+        return !(response instanceof LoginResponse || response instanceof SpawnResponse || response instanceof TeleportResponse
+                || response instanceof PlayerEquipmentResponse || response instanceof AnimateResponse); //These use the recipient's entity ID
+    }
+
+    @Override
+    protected byte[] encodeChunk(Chunk chunk){
+        BinaryBuffer ordered = BinaryBuffer.newInstance(83200, ByteOrder.BIG_ENDIAN);
+        ordered.put(chunk.getBlockIds());
+        ordered.put(chunk.getBlockMeta());
+        ordered.put(chunk.getSkylight());
+        ordered.put(chunk.getBlocklight());
+        ordered.put(chunk.getHeightmap());
+        ordered.put(chunk.getBiomeColors());
+
+        byte[] orderedData = ordered.toArray();
+
+        BinaryBuffer bb = BinaryBuffer.newInstance(83213, ByteOrder.BIG_ENDIAN);
+        bb.putByte(FULL_CHUNK_DATA_PACKET);
+        bb.putInt(chunk.getPosition().getX());
+        bb.putInt(chunk.getPosition().getZ());
+        bb.putInt(orderedData.length);
+        bb.put(orderedData);
+        return Arrays.copyOf(bb.toArray(), bb.getPosition());
+    }
+
+    @Override
+    public byte getBatchPacketId(){
+        return BATCH_PACKET;
+    }
+
+    @Override
+    protected void writeBatchEntry(BinaryBuffer payload, byte[] packet){
+        payload.put(packet); //Packets in a batch are not length-prefixed in this version
+    }
+
     @Override
     public String getMCPEVersion(){
         return MCPE_VERSION;
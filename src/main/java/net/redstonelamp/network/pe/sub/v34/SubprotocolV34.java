@@ -20,12 +20,15 @@ import net.redstonelamp.Player;
 import net.redstonelamp.block.Block;
 import net.redstonelamp.block.Transparent;
 import net.redstonelamp.item.Item;
+import net.redstonelamp.level.Chunk;
 import net.redstonelamp.level.Level;
 import net.redstonelamp.level.position.BlockPosition;
 import net.redstonelamp.level.position.Position;
 import net.redstonelamp.math.Side;
 import net.redstonelamp.math.Vector3;
 import net.redstonelamp.network.UniversalPacket;
+import net.redstonelamp.network.pe.sub.BatchDecoder;
+import net.redstonelamp.network.pe.sub.EncoderRegistry;
 import net.redstonelamp.network.pe.sub.PESubprotocolManager;
 import net.redstonelamp.network.pe.sub.Subprotocol;
 import net.redstonelamp.network.pe.sub.v27.UpdateBlockPacketFlagsV27;
@@ -33,10 +36,8 @@ import net.redstonelamp.network.pe.sub.v27.UpdateBlockPacketRecordV27;
 import net.redstonelamp.nio.BinaryBuffer;
 import net.redstonelamp.request.*;
 import net.redstonelamp.response.*;
-import net.redstonelamp.utils.CompressionUtils;
 import net.redstonelamp.utils.TextFormat;
 
-import java.net.SocketAddress;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -55,6 +56,7 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
 
     public SubprotocolV34(PESubprotocolManager manager){
         super(manager);
+        registerEncoders();
     }
 
     @Override
@@ -72,10 +74,10 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
                 up.bb().skip(8); //Skip protocols
                 long clientId = up.bb().getLong();
                 UUID clientUUid = up.bb().getUUID();
-                up.bb().getString(); //server addresss
+                up.bb().skipString(); //server addresss
                 String clientSecret = up.bb().getString();
                 boolean slim = up.bb().getBoolean();
-                byte[] skin = up.bb().get(up.bb().getUnsignedShort());
+                byte[] skin = up.bb().get(up.bb().getUnsignedShort()); //Copied, the packet may be a view of a reused batch buffer
 
                 LoginRequest lr = new LoginRequest(username, "minecraft.pocket-012", clientUUid);
                 lr.clientId = clientId;
@@ -100,7 +102,7 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
                 break;
 
             case MOVE_PLAYER_PACKET:
-                Position position = new Position(getProtocol().getServer().getPlayer(up.getAddress()).getPosition().getLevel());
+                Position position = new Position(getProtocol().getServer().getPlayer(up.getSessionId()).getPosition().getLevel());
                 up.bb().skip(8); //Skip entity ID
                 float x = up.bb().getFloat();
                 float y = up.bb().getFloat();
@@ -148,7 +150,7 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
                     Vector3 target = new Vector3(ax, ay, az);
                     //System.out.print("Attempting to place: "+target+" block is: "+getProtocol().getServer().getLevelManager().getMainLevel().getBlock(BlockPosition.fromVector3(target, getProtocol().getServer().getLevelManager().getMainLevel())).getId());
                     //System.out.print(" Face: "+face+"\n");
-                    Level l = getProtocol().getServer().getPlayer(up.getAddress()).getPosition().getLevel();
+                    Level l = getProtocol().getServer().getPlayer(up.getSessionId()).getPosition().getLevel();
                     if(l.getBlock(BlockPosition.fromVector3(target, l)) instanceof Transparent) {
                         requests.add(new BlockPlaceRequest(block, target));
                     } else {
@@ -162,7 +164,7 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
                 int blockX = up.bb().getInt();
                 int blockZ = up.bb().getInt();
                 int blockY = up.bb().getByte();
-                Level level = getProtocol().getServer().getPlayer(up.getAddress()).getPosition().getLevel();
+                Level level = getProtocol().getServer().getPlayer(up.getSessionId()).getPosition().getLevel();
                 requests.add(new RemoveBlockRequest(new BlockPosition(blockX, blockY, blockZ, level)));
                 break;
 
@@ -188,335 +190,322 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
         return requests.toArray(new Request[requests.size()]);
     }
 
-    @Override
-    public UniversalPacket[] translateResponse(Response response, Player player){
-        List<UniversalPacket> packets = new CopyOnWriteArrayList<>();
-        SocketAddress address = player.getAddress();
-        BinaryBuffer bb;
-        if(response instanceof LoginResponse) {
-            LoginResponse lr = (LoginResponse) response;
-            if (!lr.loginAllowed) {
-                String message;
-                switch (lr.loginNotAllowedReason) {
-                    case LoginResponse.DEFAULT_loginNotAllowedReason:
-                        message = "disconnectionScreen.noReason";
-                        break;
-                    case "redstonelamp.loginFailed.serverFull":
-                        message = "disconnectionScreen.serverFull";
-                        break;
-                    default:
-                        message = lr.loginNotAllowedReason;
-                        break;
-                }
-                bb = BinaryBuffer.newInstance(3 + message.getBytes().length, ByteOrder.BIG_ENDIAN);
-                bb.putByte(DISCONNECT_PACKET);
-                bb.putString(message);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-            } else {
-                bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-                bb.putByte(PLAY_STATUS_PACKET);
-                bb.putInt(0); //LOGIN_SUCCESS
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(50, ByteOrder.BIG_ENDIAN);
-                bb.putByte(START_GAME_PACKET);
-                bb.putInt(-1); //seed
-                bb.putByte((byte) 0); //Dimension, 0: overworld, 1: nether
-                bb.putInt(lr.generator);
-                bb.putInt(lr.gamemode);
-                bb.putLong(0); //Use zero for actual player
-                bb.putInt(lr.spawnX);
-                bb.putInt(lr.spawnY);
-                bb.putInt(lr.spawnZ);
-                bb.putFloat(lr.x);
-                bb.putFloat(lr.y);
-                bb.putFloat(lr.z);
-                bb.putByte((byte) 0);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(6, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_TIME_PACKET);
-                bb.putInt(player.getPosition().getLevel().getTime());
-                bb.putBoolean(true);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(13, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_SPAWN_POSITION_PACKET);
-                bb.putInt(lr.spawnX);
-                bb.putInt(lr.spawnY);
-                bb.putInt(lr.spawnZ);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_HEALTH_PACKET);
-                bb.putInt(lr.health);
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-                bb.putByte(SET_DIFFICULTY_PACKET);
-                bb.putInt(1); //TODO: Correct difficulty
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-                if(lr.gamemode == 1) {
-                    bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-                    bb.putByte(CONTAINER_SET_CONTENT_PACKET);
-                    bb.putByte((byte) 0x79); //SPECIAL_CREATIVE
-                    bb.putShort((short) Item.getCreativeItems().size());
-                    Item.getCreativeItems().forEach(bb::putSlot);
-                    bb.putShort((short) 0);
-                    packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-                }
+    private void registerEncoders(){
+        EncoderRegistry encoders = getEncoders();
+        encoders.register(LoginResponse.class, 5, this::encodeLogin);
+        encoders.register(DisconnectResponse.class, 64, this::encodeDisconnect);
+        encoders.register(ChunkResponse.class, 0, this::encodeChunkResponse);
+        encoders.register(SpawnResponse.class, 5, this::encodeSpawn);
+        encoders.register(AnimateResponse.class, 10, this::encodeAnimate);
+        encoders.register(ChatResponse.class, 64, this::encodeChat);
+        encoders.register(PopupResponse.class, 64, this::encodePopup);
+        encoders.register(AddPlayerResponse.class, 128, this::encodeAddPlayer);
+        encoders.register(RemovePlayerResponse.class, 25, this::encodeRemovePlayer);
+        encoders.register(PlayerMoveResponse.class, 35, this::encodePlayerMove);
+        encoders.register(BlockPlaceResponse.class, 15, this::encodeBlockPlace);
+        encoders.register(RemoveBlockResponse.class, 15, this::encodeRemoveBlock);
+        encoders.register(SetHeldItemResponse.class, 24, this::encodeSetHeldItem);
+        encoders.register(SprintResponse.class, 29, this::encodeSprint);
+    }
 
-                getProtocol().getChunkSender().registerChunkRequests(getProtocol().getServer().getPlayer(address), 96);
-            }
-        } else if(response instanceof DisconnectResponse) {
-            DisconnectResponse dr = (DisconnectResponse) response;
-            if(dr.notifyClient) {
-                bb = BinaryBuffer.newInstance(3 + dr.reason.getBytes().length, ByteOrder.BIG_ENDIAN);
-                bb.putByte(DISCONNECT_PACKET);
-                if(dr.reason.startsWith("!")) {
-                    bb.putString(translateTranslationToPE(new ChatResponse.ChatTranslation(dr.reason.replaceAll(Pattern.quote("!"), ""), new String[0])).message);
-                } else {
-                    bb.putString(dr.reason);
-                }
-                packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-            }
-        }else if(response instanceof ChunkResponse){
-            ChunkResponse cr = (ChunkResponse) response;
-
-            BinaryBuffer ordered = BinaryBuffer.newInstance(83204, ByteOrder.BIG_ENDIAN);
-            ordered.put(cr.chunk.getBlockIds());
-            ordered.put(cr.chunk.getBlockMeta());
-            ordered.put(cr.chunk.getSkylight());
-            ordered.put(cr.chunk.getBlocklight());
-            ordered.put(cr.chunk.getHeightmap());
-            ordered.put(cr.chunk.getBiomeColors());
-            //TODO: Implement extra data
-            ordered.setOrder(ByteOrder.LITTLE_ENDIAN);
-            ordered.putInt(0);
-
-            byte[] orderedData = ordered.toArray();
-
-            bb = BinaryBuffer.newInstance(83218, ByteOrder.BIG_ENDIAN);
-            bb.putByte(FULL_CHUNK_DATA_PACKET);
-            bb.putInt(cr.chunk.getPosition().getX());
-            bb.putInt(cr.chunk.getPosition().getZ());
-            bb.putByte((byte) 0); //ORDER_COLUMNS
-            bb.putInt(orderedData.length);
-            bb.put(orderedData);
-
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof SpawnResponse){
-            SpawnResponse sr = (SpawnResponse) response;
-
-            int flags = 0;
-            flags |= 0x20;
-            if(player.getGamemode() == 1){
-                flags |= 0x80; //allow flight
-            }
-            bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-            bb.putByte(ADVENTURE_SETTINGS_PACKET);
-            bb.putInt(flags);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-            //byte[] metadata = EntityMetadata.write(player.getMetadata());
-            byte[] metadata = player.getMetadata().toBytes();
-            bb = BinaryBuffer.newInstance(9 + metadata.length, ByteOrder.BIG_ENDIAN);
-            bb.putByte(SET_ENTITY_DATA_PACKET);
-            bb.putLong(0); //Player Entity ID is always zero to themselves
-            bb.put(metadata);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-            bb = BinaryBuffer.newInstance(6, ByteOrder.BIG_ENDIAN);
-            bb.putByte(SET_TIME_PACKET);
-            bb.putInt(player.getPosition().getLevel().getTime());
-            bb.putBoolean(true);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-            bb = BinaryBuffer.newInstance(13, ByteOrder.BIG_ENDIAN);
-            bb.putByte(RESPAWN_PACKET);
-            bb.putFloat((float) sr.spawnPosition.getX());
-            bb.putFloat((float) sr.spawnPosition.getY());
-            bb.putFloat((float) sr.spawnPosition.getZ());
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-            bb = BinaryBuffer.newInstance(5, ByteOrder.BIG_ENDIAN);
-            bb.putByte(PLAY_STATUS_PACKET);
-            bb.putInt(3); //PLAY_SPAWN
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }else if(response instanceof AnimateResponse){
-            AnimateResponse ar = (AnimateResponse) response;
-            bb = BinaryBuffer.newInstance(10, ByteOrder.BIG_ENDIAN);
-            bb.putByte(ANIMATE_PACKET);
-            switch(ar.actionType){
-                case SWING_ARM:
-                    bb.putByte((byte) 1);
+    private void encodeLogin(LoginResponse lr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb;
+        if(!lr.loginAllowed){
+            String message;
+            switch(lr.loginNotAllowedReason){
+                case LoginResponse.DEFAULT_loginNotAllowedReason:
+                    message = "disconnectionScreen.noReason";
+                    break;
+                case "redstonelamp.loginFailed.serverFull":
+                    message = "disconnectionScreen.serverFull";
                     break;
-                case WAKE_UP:
-                    bb.putByte((byte) 3);
+                default:
+                    message = lr.loginNotAllowedReason;
                     break;
             }
-            bb.putLong(ar.entityID);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof ChatResponse) {
-            ChatResponse cr = (ChatResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
+            bb = out.allocate(1 + EncoderRegistry.stringSize(message));
+            bb.putByte(DISCONNECT_PACKET);
+            bb.putString(message);
+            out.add(bb);
+            return;
+        }
+        bb = out.allocate();
+        bb.putByte(PLAY_STATUS_PACKET);
+        bb.putInt(0); //LOGIN_SUCCESS
+        out.add(bb);
+
+        bb = out.allocate(50);
+        bb.putByte(START_GAME_PACKET);
+        bb.putInt(-1); //seed
+        bb.putByte((byte) 0); //Dimension, 0: overworld, 1: nether
+        bb.putInt(lr.generator);
+        bb.putInt(lr.gamemode);
+        bb.putLong(0); //Use zero for actual player
+        bb.putInt(lr.spawnX);
+        bb.putInt(lr.spawnY);
+        bb.putInt(lr.spawnZ);
+        bb.putFloat(lr.x);
+        bb.putFloat(lr.y);
+        bb.putFloat(lr.z);
+        bb.putByte((byte) 0);
+        out.add(bb);
+
+        bb = out.allocate(6);
+        bb.putByte(SET_TIME_PACKET);
+        bb.putInt(player.getPosition().getLevel().getTime());
+        bb.putBoolean(true);
+        out.add(bb);
+
+        bb = out.allocate(13);
+        bb.putByte(SET_SPAWN_POSITION_PACKET);
+        bb.putInt(lr.spawnX);
+        bb.putInt(lr.spawnY);
+        bb.putInt(lr.spawnZ);
+        out.add(bb);
+
+        bb = out.allocate(5);
+        bb.putByte(SET_HEALTH_PACKET);
+        bb.putInt(lr.health);
+        out.add(bb);
+
+        bb = out.allocate(5);
+        bb.putByte(SET_DIFFICULTY_PACKET);
+        bb.putInt(1); //TODO: Correct difficulty
+        out.add(bb);
+
+        if(lr.gamemode == 1){
+            List<Item> items = Item.getCreativeItems();
+            bb = out.allocate(6 + (items.size() * 7)); //Creative items have no NBT
+            bb.putByte(CONTAINER_SET_CONTENT_PACKET);
+            bb.putByte((byte) 0x79); //SPECIAL_CREATIVE
+            bb.putShort((short) items.size());
+            items.forEach(bb::putSlot);
+            bb.putShort((short) 0);
+            out.add(bb);
+        }
+
+        getProtocol().getChunkSender().registerChunkRequests(player, 96);
+    }
+
+    private void encodeDisconnect(DisconnectResponse dr, Player player, EncoderRegistry.Output out){
+        if(!dr.notifyClient){
+            return;
+        }
+        String reason = dr.reason;
+        if(reason.startsWith("!")){
+            reason = translateTranslationToPE(new ChatResponse.ChatTranslation(reason.replaceAll(Pattern.quote("!"), ""), new String[0])).message;
+        }
+        BinaryBuffer bb = out.allocate(1 + EncoderRegistry.stringSize(reason));
+        bb.putByte(DISCONNECT_PACKET);
+        bb.putString(reason);
+        out.add(bb);
+    }
+
+    private void encodeChunkResponse(ChunkResponse cr, Player player, EncoderRegistry.Output out){
+        out.add(getChunkPacket(cr.chunk)); //Cached, already compressed
+    }
+
+    private void encodeSpawn(SpawnResponse sr, Player player, EncoderRegistry.Output out){
+        int flags = 0;
+        flags |= 0x20;
+        if(player.getGamemode() == 1){
+            flags |= 0x80; //allow flight
+        }
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(ADVENTURE_SETTINGS_PACKET);
+        bb.putInt(flags);
+        out.add(bb);
+
+        //byte[] metadata = EntityMetadata.write(player.getMetadata());
+        byte[] metadata = player.getMetadata().toBytes();
+        bb = out.allocate(9 + metadata.length);
+        bb.putByte(SET_ENTITY_DATA_PACKET);
+        bb.putLong(0); //Player Entity ID is always zero to themselves
+        bb.put(metadata);
+        out.add(bb);
+
+        bb = out.allocate(6);
+        bb.putByte(SET_TIME_PACKET);
+        bb.putInt(player.getPosition().getLevel().getTime());
+        bb.putBoolean(true);
+        out.add(bb);
+
+        bb = out.allocate(13);
+        bb.putByte(RESPAWN_PACKET);
+        bb.putFloat((float) sr.spawnPosition.getX());
+        bb.putFloat((float) sr.spawnPosition.getY());
+        bb.putFloat((float) sr.spawnPosition.getZ());
+        out.add(bb);
+
+        bb = out.allocate(5);
+        bb.putByte(PLAY_STATUS_PACKET);
+        bb.putInt(3); //PLAY_SPAWN
+        out.add(bb);
+    }
+
+    private void encodeAnimate(AnimateResponse ar, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(ANIMATE_PACKET);
+        switch(ar.actionType){
+            case SWING_ARM:
+                bb.putByte((byte) 1);
+                break;
+            case WAKE_UP:
+                bb.putByte((byte) 3);
+                break;
+        }
+        bb.putLong(ar.entityID);
+        out.add(bb);
+    }
+
+    private void encodeChat(ChatResponse cr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb;
+        if(cr.translation != null){
+            ChatResponse.ChatTranslation translation = translateTranslationToPE(cr.translation);
+            int size = 3 + EncoderRegistry.stringSize(translation.message);
+            for(String param : translation.params){
+                size += EncoderRegistry.stringSize(param);
+            }
+            bb = out.allocate(size);
             bb.putByte(TEXT_PACKET);
-            if(cr.translation != null) {
-                ChatResponse.ChatTranslation translation = translateTranslationToPE(cr.translation);
-                bb.putByte(TEXT_TRANSLATION);
-                bb.putString(translation.message);
-                bb.putByte((byte) translation.params.length);
-                for(String param : translation.params) {
-                    bb.putString(param);
-                }
-            } else if(cr.source != null){
-                bb.putByte(TEXT_CHAT);
-                bb.putString(cr.source);
-                bb.putString(cr.message);
-            } else {
-                bb.putByte(TEXT_RAW);
-                bb.putString(cr.message);
+            bb.putByte(TEXT_TRANSLATION);
+            bb.putString(translation.message);
+            bb.putByte((byte) translation.params.length);
+            for(String param : translation.params){
+                bb.putString(param);
             }
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof PopupResponse) {
-            PopupResponse pr = (PopupResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
+        }else if(cr.source != null){
+            bb = out.allocate(2 + EncoderRegistry.stringSize(cr.source) + EncoderRegistry.stringSize(cr.message));
             bb.putByte(TEXT_PACKET);
-            bb.putByte(TEXT_POPUP);
-            bb.putString(pr.message);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof AddPlayerResponse) {
-            Player p = ((AddPlayerResponse) response).player;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(ADD_PLAYER_PACKET);
-            bb.putUUID(p.getUuid());
-            bb.putString(p.getName()); //TODO: getUsername()
-            bb.putLong(p.getEntityID());
-            bb.putFloat(p.getPosition().getX());
-            bb.putFloat(p.getPosition().getY());
-            bb.putFloat(p.getPosition().getZ());
-            bb.putFloat(0f); //Speed x
-            bb.putFloat(0f); //Speed y TODO: work on these
-            bb.putFloat(0f); //Speed z
-            bb.putFloat(p.getPosition().getYaw());
-            bb.putFloat(p.getPosition().getYaw()); //TODO: head yaw/rot
-            bb.putFloat(p.getPosition().getPitch());
-            bb.putSlot(p.getInventory().getItemInHand());
-            bb.put(p.getMetadata().toBytes());
-
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(PLAYER_LIST_PACKET);
-            bb.putByte((byte) 0);
-            bb.putInt(1);
-            bb.putUUID(p.getUuid());
-            bb.putLong(p.getEntityID());
-            bb.putString(p.getName());
-            bb.putBoolean(p.isSlim());
-            bb.putShort((short) p.getSkin().length);
-            bb.put(p.getSkin());
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-        } else if(response instanceof RemovePlayerResponse) {
-            Player p = ((RemovePlayerResponse) response).player;
-            bb = BinaryBuffer.newInstance(25, ByteOrder.BIG_ENDIAN);
-            bb.putByte(REMOVE_PLAYER_PACKET);
-            bb.putLong(p.getEntityID());
-            bb.putUUID(p.getUuid());
-
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(PLAYER_LIST_PACKET);
-            bb.putByte((byte) 1);
-            bb.putInt(1);
-            bb.putUUID(p.getUuid());
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof PlayerMoveResponse) {
-            PlayerMoveResponse pmr = (PlayerMoveResponse) response;
-            bb = BinaryBuffer.newInstance(35, ByteOrder.BIG_ENDIAN);
-            bb.putByte(MOVE_PLAYER_PACKET);
-            bb.putLong(pmr.entityID);
-            bb.putFloat((float) pmr.pos.getX());
-            bb.putFloat((float) pmr.pos.getY());
-            bb.putFloat((float) pmr.pos.getZ());
-            bb.putFloat(pmr.pos.getYaw());
-            bb.putFloat(pmr.bodyYaw);
-            bb.putFloat(pmr.pos.getPitch());
-            bb.putByte((byte) 0); //MODE_NORMAL
-            bb.putByte((byte) (pmr.onGround ? 1 : 0));
-
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof BlockPlaceResponse) {
-            BlockPlaceResponse bpr = (BlockPlaceResponse) response;
-            bb = BinaryBuffer.newInstance(16, ByteOrder.BIG_ENDIAN);
-            bb.putByte(UPDATE_BLOCK_PACKET);
-            bb.putInt(1);
-            bb.putInt(bpr.position.getX());
-            bb.putInt(bpr.position.getZ());
-            bb.putByte((byte) bpr.position.getY());
-            bb.putByte((byte) bpr.block.getId());
-            bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) bpr.block.getMeta()));
-
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof RemoveBlockResponse) {
-            RemoveBlockResponse rbr = (RemoveBlockResponse) response;
-            bb = BinaryBuffer.newInstance(16, ByteOrder.BIG_ENDIAN);
-            bb.putByte(UPDATE_BLOCK_PACKET);
-            bb.putInt(1);
-            bb.putInt(rbr.position.getX());
-            bb.putInt(rbr.position.getZ());
-            bb.putByte((byte) rbr.position.getY());
-            bb.putByte((byte) 0); //AIR
-            bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) 0));
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof SetHeldItemResponse) {
-            SetHeldItemResponse shir = (SetHeldItemResponse) response;
-            bb = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN);
-            bb.putByte(MOB_EQUIPMENT_PACKET);
-            bb.putLong(shir.entityID);
-            bb.putSlot(shir.item);
-            bb.putByte((byte) shir.inventorySlot);
-            bb.putByte((byte) shir.hotbarSlot);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        } else if(response instanceof SprintResponse) {
-            SprintResponse sr = (SprintResponse) response;
-            bb = BinaryBuffer.newInstance(29, ByteOrder.BIG_ENDIAN);
-            bb.putByte(PLAYER_ACTION_PACKET);
-            bb.putLong(sr.player.getEntityID());
-            bb.putInt(sr.starting ? PlayerActionsV34.ACTION_START_SPRINT : PlayerActionsV34.ACTION_STOP_SPRINT);
-            bb.putInt(Math.round(sr.player.getPosition().getX()));
-            bb.putInt(Math.round(sr.player.getPosition().getY()));
-            bb.putInt(Math.round(sr.player.getPosition().getZ()));
-            bb.putInt(Side.UP);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
+            bb.putByte(TEXT_CHAT);
+            bb.putString(cr.source);
+            bb.putString(cr.message);
+        }else{
+            bb = out.allocate(2 + EncoderRegistry.stringSize(cr.message));
+            bb.putByte(TEXT_PACKET);
+            bb.putByte(TEXT_RAW);
+            bb.putString(cr.message);
         }
+        out.add(bb);
+    }
 
-        //Compress packets
+    private void encodePopup(PopupResponse pr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate(2 + EncoderRegistry.stringSize(pr.message));
+        bb.putByte(TEXT_PACKET);
+        bb.putByte(TEXT_POPUP);
+        bb.putString(pr.message);
+        out.add(bb);
+    }
 
-        List<UniversalPacket> toBeCompressed = new CopyOnWriteArrayList<>();
-        packets.stream().filter(packet -> packet.getBuffer().length >= 512 && packet.getBuffer()[0] != BATCH_PACKET).forEach(packet -> {
-            toBeCompressed.add(packet);
-            packets.remove(packet);
-        });
+    private void encodeAddPlayer(AddPlayerResponse apr, Player player, EncoderRegistry.Output out){
+        Player p = apr.player;
+        byte[] metadata = p.getMetadata().toBytes();
+        BinaryBuffer bb = out.allocate(out.getSizeHint() + EncoderRegistry.stringSize(p.getName()) + metadata.length);
+        bb.putByte(ADD_PLAYER_PACKET);
+        bb.putUUID(p.getUuid());
+        bb.putString(p.getName()); //TODO: getUsername()
+        bb.putLong(p.getEntityID());
+        bb.putFloat(p.getPosition().getX());
+        bb.putFloat(p.getPosition().getY());
+        bb.putFloat(p.getPosition().getZ());
+        bb.putFloat(0f); //Speed x
+        bb.putFloat(0f); //Speed y TODO: work on these
+        bb.putFloat(0f); //Speed z
+        bb.putFloat(p.getPosition().getYaw());
+        bb.putFloat(p.getPosition().getYaw()); //TODO: head yaw/rot
+        bb.putFloat(p.getPosition().getPitch());
+        bb.putSlot(p.getInventory().getItemInHand());
+        bb.put(metadata);
+        out.add(bb);
+
+        bb = out.allocate(33 + EncoderRegistry.stringSize(p.getName()) + p.getSkin().length);
+        bb.putByte(PLAYER_LIST_PACKET);
+        bb.putByte((byte) 0);
+        bb.putInt(1);
+        bb.putUUID(p.getUuid());
+        bb.putLong(p.getEntityID());
+        bb.putString(p.getName());
+        bb.putBoolean(p.isSlim());
+        bb.putShort((short) p.getSkin().length);
+        bb.put(p.getSkin());
+        out.add(bb);
+    }
 
-        BinaryBuffer batch = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN); //Batch PAYLOAD
-        for(UniversalPacket packet : toBeCompressed){
-            batch.putInt(packet.getBuffer().length);
-            batch.put(packet.getBuffer());
-        }
-        if(batch.toArray().length > 1){
-            byte[] compressedPayload = CompressionUtils.zlibDeflate(batch.toArray(), 7);
-            bb = BinaryBuffer.newInstance(compressedPayload.length + 5, ByteOrder.BIG_ENDIAN);
-            bb.putByte(BATCH_PACKET);
-            bb.putInt(compressedPayload.length);
-            bb.put(compressedPayload);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, address));
-        }
+    private void encodeRemovePlayer(RemovePlayerResponse rpr, Player player, EncoderRegistry.Output out){
+        Player p = rpr.player;
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(REMOVE_PLAYER_PACKET);
+        bb.putLong(p.getEntityID());
+        bb.putUUID(p.getUuid());
+        out.add(bb);
+
+        bb = out.allocate(22);
+        bb.putByte(PLAYER_LIST_PACKET);
+        bb.putByte((byte) 1);
+        bb.putInt(1);
+        bb.putUUID(p.getUuid());
+        out.add(bb);
+    }
 
-        return packets.toArray(new UniversalPacket[packets.size()]);
+    private void encodePlayerMove(PlayerMoveResponse pmr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(MOVE_PLAYER_PACKET);
+        bb.putLong(pmr.entityID);
+        bb.putFloat((float) pmr.pos.getX());
+        bb.putFloat((float) pmr.pos.getY());
+        bb.putFloat((float) pmr.pos.getZ());
+        bb.putFloat(pmr.pos.getYaw());
+        bb.putFloat(pmr.bodyYaw);
+        bb.putFloat(pmr.pos.getPitch());
+        bb.putByte((byte) 0); //MODE_NORMAL
+        bb.putByte((byte) (pmr.onGround ? 1 : 0));
+        out.add(bb);
+    }
+
+    private void encodeBlockPlace(BlockPlaceResponse bpr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(UPDATE_BLOCK_PACKET);
+        bb.putInt(1);
+        bb.putInt(bpr.position.getX());
+        bb.putInt(bpr.position.getZ());
+        bb.putByte((byte) bpr.position.getY());
+        bb.putByte((byte) bpr.block.getId());
+        bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) bpr.block.getMeta()));
+        out.add(bb);
+    }
+
+    private void encodeRemoveBlock(RemoveBlockResponse rbr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(UPDATE_BLOCK_PACKET);
+        bb.putInt(1);
+        bb.putInt(rbr.position.getX());
+        bb.putInt(rbr.position.getZ());
+        bb.putByte((byte) rbr.position.getY());
+        bb.putByte((byte) 0); //AIR
+        bb.putByte((byte) ((UpdateBlockPacketFlagsV27.FLAG_ALL_PRIORITY << 4) | (byte) 0));
+        out.add(bb);
+    }
+
+    private void encodeSetHeldItem(SetHeldItemResponse shir, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(MOB_EQUIPMENT_PACKET);
+        bb.putLong(shir.entityID);
+        bb.putSlot(shir.item);
+        bb.putByte((byte) shir.inventorySlot);
+        bb.putByte((byte) shir.hotbarSlot);
+        out.add(bb);
+    }
+
+    private void encodeSprint(SprintResponse sr, Player player, EncoderRegistry.Output out){
+        BinaryBuffer bb = out.allocate();
+        bb.putByte(PLAYER_ACTION_PACKET);
+        bb.putLong(sr.player.getEntityID());
+        bb.putInt(sr.starting ? PlayerActionsV34.ACTION_START_SPRINT : PlayerActionsV34.ACTION_STOP_SPRINT);
+        bb.putInt(Math.round(sr.player.getPosition().getX()));
+        bb.putInt(Math.round(sr.player.getPosition().getY()));
+        bb.putInt(Math.round(sr.player.getPosition().getZ()));
+        bb.putInt(Side.UP);
+        out.add(bb);
     }
 
     private ChatResponse.ChatTranslation translateTranslationToPE(ChatResponse.ChatTranslation translation) {
@@ -563,52 +552,20 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
             packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, player.getAddress()));
         }
 
-        //Compress packets
-
-        List<UniversalPacket> toBeCompressed = new CopyOnWriteArrayList<>();
-        packets.stream().filter(packet -> packet.getBuffer().length >= 512 && packet.getBuffer()[0] != BATCH_PACKET).forEach(packet -> {
-            toBeCompressed.add(packet);
-            packets.remove(packet);
-        });
-
-        BinaryBuffer batch = BinaryBuffer.newInstance(0, ByteOrder.BIG_ENDIAN); //Batch PAYLOAD
-        for(UniversalPacket packet : toBeCompressed){
-            batch.putInt(packet.getBuffer().length);
-            batch.put(packet.getBuffer());
-        }
-        if(batch.toArray().length > 1){
-            byte[] compressedPayload = CompressionUtils.zlibDeflate(batch.toArray(), 7);
-            bb = BinaryBuffer.newInstance(compressedPayload.length + 5, ByteOrder.BIG_ENDIAN);
-            bb.putByte(BATCH_PACKET);
-            bb.putInt(compressedPayload.length);
-            bb.put(compressedPayload);
-            packets.add(new UniversalPacket(bb.toArray(), ByteOrder.BIG_ENDIAN, player.getAddress()));
-        }
+        //Packets are put into batches when the player's responses are flushed, see coalesce()
         return packets.toArray(new UniversalPacket[packets.size()]);
     }
 
 
     private Request[] processBatch(UniversalPacket up){
         List<Request> requests = new ArrayList<>();
-        int len = up.bb().getInt();
-        byte[] compressed = up.bb().get(len);
-        try{
-            byte[] uncompressed = CompressionUtils.zlibInflate(compressed);
-            BinaryBuffer bb = BinaryBuffer.wrapBytes(uncompressed, up.bb().getOrder());
-            while(bb.getPosition() < uncompressed.length){
-                int pkLen = bb.getInt();
-                if(pkLen > bb.remaining()){
-                    break;
-                }
-
-                byte[] data = bb.get(pkLen);
-                BinaryBuffer pk = BinaryBuffer.wrapBytes(data, up.bb().getOrder());
-
-                byte id = pk.getByte();
-                if(id == BATCH_PACKET){
+        try(BatchDecoder.Batch batch = getManager().getBatchDecoder().decode(up)){
+            UniversalPacket packet;
+            while((packet = batch.nextPacket()) != null){
+                if(packet.bb().getByte() == BATCH_PACKET){
                     throw new IllegalStateException("BatchPacket found inside BatchPacket!");
                 }
-                UniversalPacket packet = new UniversalPacket(data, up.bb().getOrder(), up.getAddress());
+                packet.bb().setPosition(0);
                 requests.addAll(Arrays.asList(handlePacket(packet)));
             }
         }catch(DataFormatException e){
@@ -622,6 +579,47 @@ public class SubprotocolV34 extends Subprotocol implements ProtocolConst34{
         }
     }
 
+    @Override
+    public boolean canShareTranslation(Response response){
+        return !(response instanceof LoginResponse || response instanceof SpawnResponse);
+    }
+
+    @Override
+    protected byte[] encodeChunk(Chunk chunk){
+        BinaryBuffer ordered = BinaryBuffer.newInstance(83204, ByteOrder.BIG_ENDIAN);
+        ordered.put(chunk.getBlockIds());
+        ordered.put(chunk.getBlockMeta());
+        ordered.put(chunk.getSkylight());
+        ordered.put(chunk.getBlocklight());
+        ordered.put(chunk.getHeightmap());
+        ordered.put(chunk.getBiomeColors());
+        //TODO: Implement extra data
+        ordered.setOrder(ByteOrder.LITTLE_ENDIAN);
+        ordered.putInt(0);
+
+        byte[] orderedData = ordered.toArray();
+
+        BinaryBuffer bb = BinaryBuffer.newInstance(83218, ByteOrder.BIG_ENDIAN);
+        bb.putByte(FULL_CHUNK_DATA_PACKET);
+        bb.putInt(chunk.getPosition().getX());
+        bb.putInt(chunk.getPosition().getZ());
+        bb.putByte((byte) 0); //ORDER_COLUMNS
+        bb.putInt(orderedData.length);
+        bb.put(orderedData);
+        return bb.toArray();
+    }
+
+    @Override
+    public byte getBatchPacketId(){
+        return BATCH_PACKET;
+    }
+
+    @Override
+    protected void writeBatchEntry(BinaryBuffer payload, byte[] packet){
+        payload.putInt(packet.length);
+        payload.put(packet);
+    }
+
     @Override
     public String getMCPEVersion(){
         return MCPE_VERSION;
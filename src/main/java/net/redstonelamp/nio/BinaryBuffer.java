@@ -18,8 +18,11 @@ package net.redstonelamp.nio;
 
 
 import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.UUID;
 
 import org.spout.nbt.CompoundTag;
@@ -55,6 +58,22 @@ public class BinaryBuffer{
         return new BinaryBuffer(bb);
     }
 
+    /**
+     * Create a new DynamicByteBuffer wrapped around <code>length</code> bytes of a byte array starting at
+     * <code>offset</code>, without copying them. Position zero of the buffer is <code>offset</code> in the array.
+     *
+     * @param bytes  The byte array to be wrapped around
+     * @param offset The offset of the first byte of the buffer in the array
+     * @param length The amount of bytes in the buffer
+     * @param order  The ByteOrder of the buffer, Big Endian or Little Endian.
+     * @return A new DynamicByteBuffer class, at position zero wrapped around the part of the byte array
+     */
+    public static BinaryBuffer wrapBytes(byte[] bytes, int offset, int length, ByteOrder order){
+        ByteBuffer bb = ByteBuffer.wrap(bytes, offset, length).slice();
+        bb.order(order);
+        return new BinaryBuffer(bb);
+    }
+
     /**
      * Create a new DynamicByteBuffer with the specified <code>initalSize</code> and <code>order</code>
      * <br>
@@ -84,6 +103,23 @@ public class BinaryBuffer{
         return b;
     }
 
+    /**
+     * Get a view of the next <code>len</code> bytes of the buffer, without copying them. The view shares its bytes with
+     * this buffer and starts at position zero. The position of this buffer is moved past the bytes.
+     *
+     * @param len The length of the view
+     * @return A DynamicByteBuffer over <code>len</code> bytes of this buffer
+     * @throws java.nio.BufferUnderflowException If there is not enough bytes in the buffer to read
+     */
+    public BinaryBuffer getSlice(int len){
+        if(len < 0 || len > bb.remaining()){
+            throw new BufferUnderflowException();
+        }
+        BinaryBuffer slice = wrapBytes(bb.array(), bb.arrayOffset() + bb.position(), len, bb.order());
+        bb.position(bb.position() + len);
+        return slice;
+    }
+
     /**
      * Put an amount of bytes into the buffer. The buffer will resize to fit the bytes if the buffer is too small.
      *
@@ -196,7 +232,23 @@ public class BinaryBuffer{
      * @return A single short prefixed string
      */
     public String getString(){
-        return new String(get(getUnsignedShort()));
+        return getString(getUnsignedShort());
+    }
+
+    /**
+     * Skip a single short prefixed string in the buffer without decoding it
+     */
+    public void skipString(){
+        skip(getUnsignedShort());
+    }
+
+    private String getString(int len){
+        if(len < 0 || len > bb.remaining()){
+            throw new BufferUnderflowException();
+        }
+        String s = new String(bb.array(), bb.arrayOffset() + bb.position(), len, StandardCharsets.UTF_8); //Decode in place
+        bb.position(bb.position() + len);
+        return s;
     }
 
     public Item getSlot() {
@@ -209,10 +261,10 @@ public class BinaryBuffer{
 
         int len = getUnsignedShort();
         if(len > 0) {
-            byte[] nbt = get(len);
+            BinaryBuffer nbt = getSlice(len);
 
             Item i = Item.get(id, data, count);
-            i.setCompoundTag((CompoundTag) BinaryUtils.readNBTTag(nbt));
+            i.setCompoundTag((CompoundTag) BinaryUtils.readNBTTag(nbt.array(), nbt.arrayOffset(), len));
             return i;
         } else {
             return Item.get(id, data, count);
@@ -225,7 +277,7 @@ public class BinaryBuffer{
      * @return A single varint prefixed string
      */
     public String getVarString(){
-        return new String(get(getVarInt()));
+        return getString(getVarInt());
     }
 
     public UUID getUUID(){
@@ -261,13 +313,15 @@ public class BinaryBuffer{
     }
 
     public void putString(String s){
-        putShort((short) s.getBytes().length);
-        put(s.getBytes());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putShort((short) bytes.length);
+        put(bytes);
     }
 
     public void putVarString(String s){
-        putVarInt(s.getBytes().length);
-        put(s.getBytes());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarInt(bytes.length);
+        put(bytes);
     }
 
     public void putUUID(UUID uuid){
@@ -310,7 +364,7 @@ public class BinaryBuffer{
      */
     public String singleLineHexDump(){
         StringBuilder sb = new StringBuilder();
-        byte[] data = bb.array();
+        byte[] data = toArray();
         for(byte b : data){
             sb.append(String.format("%02X", b)).append(" ");
         }
@@ -352,6 +406,34 @@ public class BinaryBuffer{
         return bb.position();
     }
 
+    /**
+     * Get the amount of bytes in the buffer, which is the capacity of a view
+     *
+     * @return The length of the buffer
+     */
+    public int getLength(){
+        return bb.limit();
+    }
+
+    /**
+     * Get the array backing this buffer. Views share the array of the buffer they were created from, their first byte
+     * is at <code>arrayOffset()</code>.
+     *
+     * @return The backing array
+     */
+    public byte[] array(){
+        return bb.array();
+    }
+
+    /**
+     * Get the offset of the first byte of this buffer in its backing array
+     *
+     * @return The offset in <code>array()</code>
+     */
+    public int arrayOffset(){
+        return bb.arrayOffset();
+    }
+
     /**
      * Get the amount of bytes remaining in the buffer
      *
@@ -378,6 +460,9 @@ public class BinaryBuffer{
      * @return A byte array containing all the bytes in the buffer
      */
     public byte[] toArray(){
+        if(bb.arrayOffset() != 0 || bb.capacity() != bb.array().length){ //Wrapped around a part of an array
+            return Arrays.copyOfRange(bb.array(), bb.arrayOffset(), bb.arrayOffset() + bb.capacity());
+        }
         return bb.array();
     }
 
@@ -57,6 +57,16 @@ public abstract class PluginManager {
 	 */
 	public abstract void callEvent(EventPlatform platform, Event event);
 	
+	/**
+	 * Check if any listener of this plugin manager handles events of <code>type</code>. Callers may skip
+	 * creating and calling events nobody listens to. Plugin managers that do not keep track of their
+	 * listeners return true.
+	 * @param type
+	 */
+	public boolean hasListeners(Class<? extends Event> type) {
+		return true;
+	}
+	
 	/**
 	 * Call event for both platforms
 	 * @param event
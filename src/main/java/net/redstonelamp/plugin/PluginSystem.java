@@ -23,6 +23,7 @@ import java.util.HashMap;
 
 import lombok.Getter;
 import net.redstonelamp.Server;
+import net.redstonelamp.event.Event;
 import net.redstonelamp.plugin.exception.PluginException;
 import net.redstonelamp.plugin.java.JavaPluginLoader;
 import net.redstonelamp.plugin.java.JavaPluginManager;
@@ -64,6 +65,18 @@ public final class PluginSystem {
 		managers.remove(manager.getFileType(), manager);
 	}
 	
+	/**
+	 * Check if any plugin manager has listeners for events of <code>type</code>
+	 * @param type
+	 */
+	public boolean hasListeners(Class<? extends Event> type) {
+		for(PluginManager manager : managers.values()) {
+			if(manager.hasListeners(type))
+				return true;
+		}
+		return false;
+	}
+	
 	public PluginManager[] getPluginManagers() {
 		return managers.values().toArray(new PluginManager[managers.size()]);
 	}
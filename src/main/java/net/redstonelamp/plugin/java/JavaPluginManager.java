@@ -18,7 +18,12 @@ package net.redstonelamp.plugin.java;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.redstonelamp.event.Cancellable;
 import net.redstonelamp.event.Event;
@@ -29,12 +34,17 @@ import net.redstonelamp.event.Listener;
 import net.redstonelamp.plugin.Plugin;
 import net.redstonelamp.plugin.PluginManager;
 import net.redstonelamp.plugin.exception.PluginException;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
 
 public class JavaPluginManager extends PluginManager {
 	
 	private final JavaPluginLoader loader;
 	private final HashMap<String, JavaPlugin> plugins;
 	private final HashMap<Listener, JavaPlugin> listeners;
+	private final Map<Method, Timing> handlerTimings = new ConcurrentHashMap<Method, Timing>();
+	// Handlers by the event class they handle, sorted by priority. Lists are replaced, never modified.
+	private final Map<Class<?>, List<RegisteredHandler>> handlers = new ConcurrentHashMap<Class<?>, List<RegisteredHandler>>();
 
 	public JavaPluginManager(JavaPluginLoader loader) throws IOException {
 		this.loader = loader;
@@ -64,54 +74,83 @@ public class JavaPluginManager extends PluginManager {
 		return plugins.values().toArray(new Plugin[plugins.size()]);
 	}
 
-	public void registerEvents(Listener listener, JavaPlugin plugin) {
+	public synchronized void registerEvents(Listener listener, JavaPlugin plugin) {
 		listeners.put(listener, plugin);
+		for(Method method : listener.getClass().getDeclaredMethods()) {
+			// Make sure the method has the EventHandler annotation and the method has only one parameter
+			if(method.isAnnotationPresent(EventHandler.class) && method.getParameters().length == 1) {
+				Class<?> type = method.getParameterTypes()[0];
+				List<RegisteredHandler> list = new ArrayList<RegisteredHandler>(handlers.getOrDefault(type, new ArrayList<RegisteredHandler>()));
+				list.add(new RegisteredHandler(listener, method));
+				list.sort(Comparator.comparing(handler -> handler.data.priority()));
+				handlers.put(type, list);
+			}
+		}
 	}
 
-	public void unregisterEvents(Listener listener, JavaPlugin plugin) {
-		listeners.remove(listener, plugin);
+	public synchronized void unregisterEvents(Listener listener, JavaPlugin plugin) {
+		if(!listeners.remove(listener, plugin))
+			return;
+		for(Class<?> type : new ArrayList<Class<?>>(handlers.keySet())) {
+			List<RegisteredHandler> list = new ArrayList<RegisteredHandler>(handlers.get(type));
+			list.removeIf(handler -> handler.listener == listener);
+			if(list.isEmpty())
+				handlers.remove(type);
+			else
+				handlers.put(type, list);
+		}
 	}
 
-	public Listener[] getListeners() {
-		return listeners.values().toArray(new Listener[listeners.size()]);
+	public synchronized Listener[] getListeners() {
+		return listeners.keySet().toArray(new Listener[listeners.size()]);
+	}
+
+	@Override
+	public boolean hasListeners(Class<? extends Event> type) {
+		return handlers.containsKey(type);
 	}
 	
 	@Override
 	public void callEvent(EventPlatform platform, Event event) {
-		HashMap<Method, Listener> handlers = new HashMap<Method, Listener>();
+		List<RegisteredHandler> list = handlers.get(event.getClass());
+		if(list == null)
+			return;
 		
-		// Add methods and their instances
-		for(Listener listener : getListeners()) {
-			for(Method method : listener.getClass().getDeclaredMethods()) {
-				// Make sure the method has the EventHandler annotation and the method has only one parameter
-				if(method.isAnnotationPresent(EventHandler.class) && method.getParameters().length == 1) {
-					if(method.getParameterTypes()[0].equals(event.getClass())) {
-						EventHandler data = (EventHandler) method.getAnnotation(EventHandler.class);
-						if(platform.equals(data.platform()) || data.platform().equals(EventPlatform.BOTH)) {
-							handlers.put(method, listener);
-						}
-					}
+		// The list is sorted by priority, invoke the handlers in order
+		for(RegisteredHandler handler : list) {
+			EventHandler data = handler.data;
+			if(!platform.equals(data.platform()) && !data.platform().equals(EventPlatform.BOTH))
+				continue;
+			boolean cancelled = false;
+			if(event instanceof Cancellable)
+				cancelled = (((Cancellable) event).isCancelled() && data.ignoreCancelled() == false);
+			if(!cancelled) {
+				long start = Timings.isEnabled() ? System.nanoTime() : 0L;
+				try {
+					handler.method.invoke(handler.listener, event);
+				} catch (Exception e1) {
+					e1.printStackTrace();
 				}
+				if(start != 0L)
+					getHandlerTiming(handler.method).record(System.nanoTime() - start);
 			}
 		}
-		
-		// Now invoke them in the correct order
-		for(EventPriority priority : EventPriority.values()) {
-			for(Method method : handlers.keySet()) {
-				EventHandler data = (EventHandler) method.getAnnotation(EventHandler.class);
-				if(data.priority().equals(priority)) {
-					boolean cancelled = false;
-					if(event instanceof Cancellable)
-						cancelled = (((Cancellable) event).isCancelled() && data.ignoreCancelled() == false);
-					if(!cancelled) {
-						try {
-							method.invoke(handlers.get(method), event);
-						} catch (Exception e1) {
-							e1.printStackTrace();
-						}
-					}
-				}
-			}
+	}
+
+	private Timing getHandlerTiming(Method method) {
+		return handlerTimings.computeIfAbsent(method, m -> Timings.of("Event " + m.getDeclaringClass().getName() + "#" + m.getName()
+				+ "(" + m.getParameterTypes()[0].getSimpleName() + ")"));
+	}
+
+	private static class RegisteredHandler {
+		private final Listener listener;
+		private final Method method;
+		private final EventHandler data;
+
+		private RegisteredHandler(Listener listener, Method method) {
+			this.listener = listener;
+			this.method = method;
+			this.data = method.getAnnotation(EventHandler.class);
 		}
 	}
 
@@ -16,6 +16,8 @@
  */
 package net.redstonelamp.request;
 
+import net.redstonelamp.network.SessionRegistry;
+
 import java.net.SocketAddress;
 
 /**
@@ -25,5 +27,6 @@ import java.net.SocketAddress;
  */
 public abstract class Request{
     public SocketAddress from;
+    public int session = SessionRegistry.NO_SESSION;
     public abstract void execute();
 }
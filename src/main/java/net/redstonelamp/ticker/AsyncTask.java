@@ -0,0 +1,128 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ticker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A handle to work submitted to the async workers of a <code>RedstoneTicker</code>.
+ * <br>
+ * Continuations added with the <code>...Sync</code> methods are ran on the ticker thread, at the end of a tick,
+ * so they may safely touch the level, players and other server state. Continuations added with
+ * <code>thenAsync</code> run on an async worker.
+ *
+ * @param <T> The type of the result of the work
+ * @author RedstoneLamp Team
+ */
+public class AsyncTask<T>{
+    private final RedstoneTicker ticker;
+    private final CompletableFuture<T> future;
+
+    AsyncTask(RedstoneTicker ticker, CompletableFuture<T> future){
+        this.ticker = ticker;
+        this.future = future;
+    }
+
+    /**
+     * Run <code>action</code> with the result on the ticker thread once the work has completed successfully.
+     *
+     * @param action The action to run on the ticker thread
+     * @return A new <code>AsyncTask</code> completing after <code>action</code> has ran
+     */
+    public AsyncTask<Void> thenSync(Consumer<? super T> action){
+        return new AsyncTask<>(ticker, future.thenAcceptAsync(logged(action), ticker::runSync));
+    }
+
+    /**
+     * Apply <code>fn</code> to the result on the ticker thread once the work has completed successfully.
+     *
+     * @param fn  The function to apply on the ticker thread
+     * @param <R> The type of the new result
+     * @return A new <code>AsyncTask</code> holding the result of <code>fn</code>
+     */
+    public <R> AsyncTask<R> thenApplySync(Function<? super T, ? extends R> fn){
+        return new AsyncTask<>(ticker, future.thenApplyAsync(logged(fn), ticker::runSync));
+    }
+
+    /**
+     * Apply <code>fn</code> to the result on an async worker once the work has completed successfully.
+     *
+     * @param fn  The function to apply on an async worker
+     * @param <R> The type of the new result
+     * @return A new <code>AsyncTask</code> holding the result of <code>fn</code>
+     */
+    public <R> AsyncTask<R> thenAsync(Function<? super T, ? extends R> fn){
+        return new AsyncTask<>(ticker, future.thenApplyAsync(logged(fn), ticker.getAsyncExecutor()));
+    }
+
+    /**
+     * Run <code>handler</code> on the ticker thread if the work, or any of the continuations before this one, failed.
+     *
+     * @param handler The handler receiving the cause of the failure
+     * @return A new <code>AsyncTask</code> completing with the same result as this one
+     */
+    public AsyncTask<T> exceptionallySync(Consumer<Throwable> handler){
+        return new AsyncTask<>(ticker, future.whenCompleteAsync((result, t) -> {
+            if(t != null){
+                handler.accept(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+            }
+        }, ticker::runSync));
+    }
+
+    /**
+     * Get if the work and all continuations before this one have completed, successfully or not.
+     *
+     * @return If this task is done.
+     */
+    public boolean isDone(){
+        return future.isDone();
+    }
+
+    /**
+     * Get the underlying <code>CompletableFuture</code> of this task.
+     *
+     * @return The future of this task.
+     */
+    public CompletableFuture<T> getFuture(){
+        return future;
+    }
+
+    private Consumer<? super T> logged(Consumer<? super T> action){
+        return result -> {
+            try{
+                action.accept(result);
+            }catch(RuntimeException e){
+                ticker.logAsyncFailure(e);
+                throw e;
+            }
+        };
+    }
+
+    private <R> Function<? super T, ? extends R> logged(Function<? super T, ? extends R> fn){
+        return result -> {
+            try{
+                return fn.apply(result);
+            }catch(RuntimeException e){
+                ticker.logAsyncFailure(e);
+                throw e;
+            }
+        };
+    }
+}
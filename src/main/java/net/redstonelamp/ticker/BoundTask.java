@@ -0,0 +1,107 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ticker;
+
+import net.redstonelamp.RedstoneLamp;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A named Task bound directly to a <code>tick(long)</code> method, usually through a method reference:
+ * <code>new BoundTask("LevelManager", this::tick)</code>.
+ * <br>
+ * Every run is timed, so the cumulative and max time spent in each bound task can be inspected.
+ * Exceptions thrown by the task are logged instead of escaping into the ticker.
+ *
+ * @author RedstoneLamp Team
+ */
+public class BoundTask implements Task{
+    private final String name;
+    private final LongConsumer method;
+    // Only written by the ticker thread
+    private volatile long runs = 0;
+    private volatile long totalNanos = 0;
+    private volatile long maxNanos = 0;
+
+    public BoundTask(String name, LongConsumer method){
+        this.name = name;
+        this.method = method;
+    }
+
+    @Override
+    public void onRun(long tick){
+        long start = System.nanoTime();
+        try{
+            method.accept(tick);
+        }catch(Throwable t){
+            RedstoneLamp.SERVER.getLogger().error("Exception while running task " + name + ": " + t.getClass().getName() + ": " + t.getMessage());
+            RedstoneLamp.SERVER.getLogger().trace(t);
+        }finally{
+            long elapsed = System.nanoTime() - start;
+            runs++;
+            totalNanos += elapsed;
+            if(elapsed > maxNanos){
+                maxNanos = elapsed;
+            }
+        }
+    }
+
+    /**
+     * Reset the timings of this task.
+     */
+    public void resetTimings(){
+        runs = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Get the amount of times this task has ran since the last reset.
+     *
+     * @return The amount of runs.
+     */
+    public long getRuns(){
+        return runs;
+    }
+
+    /**
+     * Get the cumulative time this task has ran for since the last reset.
+     *
+     * @return The total time in nanoseconds.
+     */
+    public long getTotalNanos(){
+        return totalNanos;
+    }
+
+    /**
+     * Get the longest single run of this task since the last reset.
+     *
+     * @return The maximum time in nanoseconds.
+     */
+    public long getMaxNanos(){
+        return maxNanos;
+    }
+
+    @Override
+    public String toString(){
+        return "BoundTask{name: " + name + "}";
+    }
+}
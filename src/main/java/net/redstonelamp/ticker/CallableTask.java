@@ -16,35 +16,58 @@
  */
 package net.redstonelamp.ticker;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.function.LongConsumer;
 
 /**
- * Represents a task that uses reflection to call a method from an object
+ * Represents a task that calls a <code>tick(long)</code>-like method from an object, looked up by name.
+ * <br>
+ * The method is resolved once into a bound <code>MethodHandle</code>. Core code should prefer
+ * <code>BoundTask</code> with a method reference, which avoids the lookup entirely.
  *
  * @author RedstoneLamp Team
  */
-public class CallableTask implements Task{
+public class CallableTask extends BoundTask{
     private final Object instance;
     private final Method method;
 
     public CallableTask(String methodName, Object instance){
+        this(lookup(methodName, instance), instance);
+    }
+
+    private CallableTask(Method method, Object instance){
+        super(instance.getClass().getSimpleName() + "#" + method.getName(), bind(method, instance));
         this.instance = instance;
+        this.method = method;
+    }
+
+    private static Method lookup(String methodName, Object instance){
         try{
-            method = instance.getClass().getMethod(methodName, long.class);
+            return instance.getClass().getMethod(methodName, long.class);
         }catch(NoSuchMethodException e){
             throw new IllegalArgumentException(e);
         }
     }
 
-    @Override
-    public void onRun(long tick){
+    private static LongConsumer bind(Method method, Object instance){
+        MethodHandle handle;
         try{
-            method.invoke(instance, tick);
-        }catch(IllegalAccessException | InvocationTargetException e){
-            System.err.println("Error while executing CallableTask!");
-            e.getCause().printStackTrace();
+            handle = MethodHandles.lookup().unreflect(method).bindTo(instance).asType(MethodType.methodType(void.class, long.class));
+        }catch(IllegalAccessException e){
+            throw new IllegalArgumentException(e);
         }
+        return tick -> {
+            try{
+                handle.invokeExact(tick);
+            }catch(RuntimeException | Error e){
+                throw e;
+            }catch(Throwable t){
+                throw new RuntimeException(t);
+            }
+        };
     }
 
     @Override
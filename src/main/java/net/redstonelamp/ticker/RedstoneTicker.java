@@ -16,14 +16,31 @@
  */
 package net.redstonelamp.ticker;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.redstonelamp.Server;
+import net.redstonelamp.cmd.Command;
 import net.redstonelamp.cmd.exception.CommandException;
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
+import net.redstonelamp.ui.ConsoleReader;
 import net.redstonelamp.utils.AntiSpam;
 
 /**
@@ -35,77 +52,146 @@ import net.redstonelamp.utils.AntiSpam;
  */
 public class RedstoneTicker{
     private static final String ANTISPAM_LOAD_MEASURE_TOO_HIGH = "net.redstonelamp.ticker.RedstoneTicker.LoadMeasureTooHigh";
+    /**
+     * The default maximum amount of late ticks the ticker will run back-to-back to catch up.
+     */
+    public static final int DEFAULT_CATCH_UP_LIMIT = 10;
+    /**
+     * The default amount of async worker threads.
+     */
+    public static final int DEFAULT_ASYNC_WORKERS = 4;
+    /**
+     * The maximum amount of async work waiting for a worker. Work submitted beyond this is rejected.
+     */
+    public static final int ASYNC_QUEUE_CAPACITY = 1024;
+    /**
+     * The default amount of milliseconds per tick spent on running main-thread continuations.
+     */
+    public static final int DEFAULT_SYNC_BUDGET = 10;
+    private static final TickPhase[] PHASES = TickPhase.values();
+    private static final long SLOW_TASK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    /**
+     * The amount of nanoseconds per tick spent on running console commands. At least one command is ran per tick.
+     */
+    private static final long CONSOLE_BUDGET = TimeUnit.MILLISECONDS.toNanos(5);
     private final Server server;
     private long sleep;
     private long tick = -1L;
-    private boolean running = false;
+    private volatile boolean running = false;
+    private volatile long heartbeat = 0;
+    private volatile Thread tickThread;
     private boolean lastTickDone = false;
     private long lastTickMilli;
     private double loadMeasure = 0D;
     private long startTime;
-    private final List<RegisteredTask> tasks = new ArrayList<>();
-    private BufferedReader cli;
+    private int catchUpLimit = DEFAULT_CATCH_UP_LIMIT;
+    private final TickStatistics statistics = new TickStatistics();
+    private final TimingWheel wheel = new TimingWheel();
+    private final Map<Task, Deque<RegisteredTask>> tasks = new HashMap<>();
+    private final List<RegisteredTask> dueTasks = new ArrayList<>();
+    private final Map<TickPhase, List<RegisteredTask>> phaseTasks = new EnumMap<>(TickPhase.class);
+    private final long[] phaseBudgets = new long[PHASES.length];
+    private final long[] phaseTotalNanos = new long[PHASES.length];
+    private final long[] phaseMaxNanos = new long[PHASES.length];
+    private final long[] phaseOverruns = new long[PHASES.length];
+    private final Timing[] phaseTimings = new Timing[PHASES.length];
+    private TickPhase currentPhase;
+    private long phaseStart;
+    private TickWatchdog watchdog;
+    private final long interval;
+    private final ThreadPoolExecutor asyncPool;
+    private final Queue<Runnable> syncQueue = new ConcurrentLinkedQueue<>();
+    private long syncBudget = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SYNC_BUDGET);
+    private final ConsoleReader console;
 
     /**
      * Create a new <code>RedstoneTicker</code> belonging to the specified <code>Server</code>
      *
      * @param server     The Server this ticker belongs to.
-     * @param sleepNanos The amount of nanoseconds to sleep for. (default 50)
+     * @param sleepNanos The amount of milliseconds between the start of each tick. (default 50)
      */
     public RedstoneTicker(Server server, int sleepNanos){
         this.server = server;
         sleep = sleepNanos;
-        cli = new BufferedReader(new InputStreamReader(System.in));
+        interval = TimeUnit.MILLISECONDS.toNanos(sleep);
+        console = new ConsoleReader(System.in, server.getLogger());
+        for(TickPhase phase : PHASES){
+            phaseTasks.put(phase, new CopyOnWriteArrayList<>());
+            phaseBudgets[phase.ordinal()] = TimeUnit.MILLISECONDS.toNanos(phase.getDefaultBudget());
+            phaseTimings[phase.ordinal()] = Timings.of("Phase " + phase.getConfigName());
+        }
+        AtomicInteger workerId = new AtomicInteger();
+        asyncPool = new ThreadPoolExecutor(DEFAULT_ASYNC_WORKERS, DEFAULT_ASYNC_WORKERS, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY), r -> {
+            Thread t = new Thread(r, "AsyncWorker-" + workerId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     /**
      * Start this ticker. This method actually runs the ticker too, therefor it blocks.
+     * <br>
+     * Ticks are scheduled at a fixed rate measured with <code>System.nanoTime()</code>. If a tick runs late the
+     * following ticks are ran without sleeping until the ticker has caught up, but never more than the
+     * catch-up limit; ticks further behind than that are dropped.
      */
     public void start(){
         if(running){
             throw new IllegalStateException("Ticker is already running");
         }
         running = true;
+        tickThread = Thread.currentThread();
         server.getLogger().debug("Ticker is now running.");
         startTime = System.currentTimeMillis();
+        if(watchdog != null){
+            watchdog.start(); //Only once running, the watchdog stops when the ticker is not running
+        }
+        console.start();
+        long nextTick = System.nanoTime();
         while(running){
+            long tickStart = System.nanoTime();
             lastTickMilli = System.currentTimeMillis();
             tick++;
+            heartbeat = tickStart;
             tick();
+            heartbeat = 0;
 
             // calculate server load
-            long now = System.currentTimeMillis();
-            long diff = now - lastTickMilli;
-            loadMeasure = diff * 100D / sleep;
-            if(loadMeasure > 80D){
-                AntiSpam.act(() -> server.getLogger().warning("The server load is too high! (%f / 100)", loadMeasure), ANTISPAM_LOAD_MEASURE_TOO_HIGH, 5000);
-                //server.getLogger().warning("The server load is too high! (%f / 100)", loadMeasure);
-                continue;
-            }
-            long need = sleep - diff;
-            try{
-                Thread.sleep(need);
-            }catch(InterruptedException e){
-                e.printStackTrace();
-            }
-            /*
-            long diff = System.currentTimeMillis() - lastTickMilli;
-            if(diff < sleep) {
-                long need = sleep - diff;
-                try {
-                    Thread.sleep(need);
-                } catch (InterruptedException e) {
+            long now = System.nanoTime();
+            long diff = now - tickStart;
+            statistics.record(tickStart, diff);
+            loadMeasure = diff * 100D / interval;
+
+            nextTick += interval;
+            long behind = now - nextTick;
+            long catchUp = catchUpLimit * interval;
+            long dropped = 0;
+            if(behind > catchUp){
+                dropped = (behind - catchUp) / interval;
+                //Without a limit the next tick is scheduled relative to the end of this one
+                nextTick = catchUpLimit == 0 ? now + interval : now - catchUp;
+            }
+            if(dropped > 0){
+                long skipped = dropped;
+                statistics.recordSkipped(skipped);
+                AntiSpam.act(() -> server.getLogger().warning("Can't keep up! The server is %d ticks behind, skipping them. (%s)", skipped, statistics.summary()), ANTISPAM_LOAD_MEASURE_TOO_HIGH, 5000);
+            }else if(loadMeasure > 80D){
+                AntiSpam.act(() -> server.getLogger().warning("The server load is too high! (%f / 100, %s)", loadMeasure, statistics.summary()), ANTISPAM_LOAD_MEASURE_TOO_HIGH, 5000);
+            }
+            long need = nextTick - System.nanoTime();
+            if(need > 0){
+                try{
+                    Thread.sleep(need / 1000000L, (int) (need % 1000000L));
+                }catch(InterruptedException e){
                     e.printStackTrace();
                 }
-            } else {
-                AntiSpam.act(() -> server.getLogger().warning("The server load is too high! ("+diff+">"+sleep+")"), ANTISPAM_LOAD_MEASURE_TOO_HIGH, 5000);
             }
-            */
-
         }
         synchronized(tasks){
-            for(RegisteredTask task : tasks){
-                task.getTask().onFinalize();
+            for(Deque<RegisteredTask> registered : tasks.values()){
+                for(RegisteredTask task : registered){
+                    task.getTask().onFinalize();
+                }
             }
         }
         
@@ -115,29 +201,91 @@ public class RedstoneTicker{
     }
 
     private void tick(){
-        RegisteredTask[] taskArray;
-        synchronized(tasks){
-            taskArray = new RegisteredTask[tasks.size()];
-            tasks.toArray(taskArray);
+        for(TickPhase phase : PHASES){
+            currentPhase = phase;
+            phaseStart = System.nanoTime();
+            for(RegisteredTask task : phaseTasks.get(phase)){
+                runTask(task);
+            }
+            switch(phase){
+                case WORLD:
+                    dueTasks.clear();
+                    wheel.advance(tick, dueTasks);
+                    for(RegisteredTask task : dueTasks){
+                        runTask(task);
+                        reschedule(task);
+                    }
+                    break;
+                case HOUSEKEEPING:
+                    runSyncQueue();
+                    runConsoleCommands();
+                    break;
+            }
+            endPhase(phase);
+        }
+        currentPhase = null;
+    }
+
+    private void runTask(RegisteredTask task){
+        long start = System.nanoTime();
+        task.run(tick);
+        long elapsed = System.nanoTime() - start;
+        if(Timings.isEnabled()) task.getTiming().record(elapsed);
+        if(elapsed >= SLOW_TASK_NANOS) server.getLogger().debug("Task took "+TimeUnit.NANOSECONDS.toMillis(elapsed)+"ms, "+task.getTask());
+    }
+
+    private void endPhase(TickPhase phase){
+        int i = phase.ordinal();
+        long elapsed = System.nanoTime() - phaseStart;
+        phaseTotalNanos[i] += elapsed;
+        if(elapsed > phaseMaxNanos[i]){
+            phaseMaxNanos[i] = elapsed;
         }
-        for(RegisteredTask task : taskArray){
-            long start = System.currentTimeMillis();
-            task.check(tick);
-            long elapsed = System.currentTimeMillis() - start;
-            if(elapsed >= 20) server.getLogger().debug("Task took "+elapsed+"ms, "+task.getTask());
+        if(elapsed > phaseBudgets[i]){
+            phaseOverruns[i]++;
         }
-        
-        String line = null;
-        try {
-            if (cli.ready()) {
-                line = cli.readLine();
-                if (line != null)
-                    server.getCommandManager().executeCommand(line, server);
+        if(Timings.isEnabled()) phaseTimings[i].record(elapsed);
+    }
+
+    private void runConsoleCommands(){
+        long deadline = System.nanoTime() + CONSOLE_BUDGET;
+        String line;
+        while((line = console.poll()) != null){
+            Command command = server.getCommandManager().findCommand(line);
+            if(command != null && command.getExecutor() != null && command.getExecutor().isAsyncSafe()){
+                String asyncLine = line;
+                runAsync(() -> executeConsoleCommand(asyncLine));
+            }else{
+                executeConsoleCommand(line);
+            }
+            if(System.nanoTime() - deadline >= 0){
+                break; // The rest is ran next tick
+            }
+        }
+    }
+
+    private void executeConsoleCommand(String line){
+        try{
+            server.getCommandManager().executeCommand(line, server);
+        }catch(CommandException | RuntimeException e){
+            server.getLogger().error("Exception while executing console command \"" + line + "\": " + e.getMessage());
+            server.getLogger().trace(e);
+        }
+    }
+
+    private void runSyncQueue(){
+        long deadline = System.nanoTime() + syncBudget;
+        Runnable r;
+        while((r = syncQueue.poll()) != null){
+            try{
+                r.run();
+            }catch(Throwable t){
+                logAsyncFailure(t);
+            }
+            if(System.nanoTime() - deadline >= 0){
+                break; // The rest is ran next tick
             }
-        } catch (CommandException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        } catch (IOException e) {}
+        }
     }
 
     /**
@@ -150,44 +298,377 @@ public class RedstoneTicker{
         running = false;
     }
 
-    public synchronized void addDelayedTask(Task task, int delay){
+    /**
+     * Register a task that runs every tick in the specified phase. Tasks of the same phase run in the order they were
+     * registered. Deferrable work should check <code>shouldYield()</code> and stop early when it returns true.
+     *
+     * @param phase The phase the task runs in.
+     * @param task  The task to be ran.
+     * @return The RegisteredTask.
+     */
+    public RegisteredTask addPhaseTask(TickPhase phase, Task task){
+        RegisteredTask rt = RegisteredTask.repeat(task, 1);
         synchronized(tasks){
-            tasks.add(RegisteredTask.delay(task, delay));
+            tasks.computeIfAbsent(task, t -> new ArrayDeque<>(1)).addLast(rt);
+            phaseTasks.get(phase).add(rt);
         }
+        return rt;
     }
 
-    public synchronized void addRepeatingTask(Task task, int repeatInterval){
-        synchronized(tasks){
-            tasks.add(RegisteredTask.repeat(task, repeatInterval));
+    /**
+     * Check if the current tick phase, or the tick as a whole, has used up its time budget.
+     * Deferrable work such as chunk sending should stop and continue next tick when this returns true.
+     * Only meaningful when called from the ticker thread.
+     *
+     * @return If the caller should yield.
+     */
+    public boolean shouldYield(){
+        TickPhase phase = currentPhase;
+        if(phase == null){
+            return false;
         }
+        long now = System.nanoTime();
+        return now - phaseStart > phaseBudgets[phase.ordinal()] || now - heartbeat > interval;
     }
 
-    public synchronized void addDelayedRepeatingTask(Task task, int delay, int repeatInterval){
-        synchronized(tasks){
-            tasks.add(RegisteredTask.delayAndRepeat(task, delay, repeatInterval));
+    /**
+     * Set the time budget of a tick phase. Phases that run longer are counted as overruns.
+     *
+     * @param phase  The phase.
+     * @param millis The budget in milliseconds.
+     */
+    public void setPhaseBudget(TickPhase phase, int millis){
+        if(millis < 0){
+            throw new IllegalArgumentException("Phase budget can not be negative");
         }
+        phaseBudgets[phase.ordinal()] = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Get the time budget of a tick phase.
+     *
+     * @param phase The phase.
+     * @return The budget in nanoseconds.
+     */
+    public long getPhaseBudget(TickPhase phase){
+        return phaseBudgets[phase.ordinal()];
+    }
+
+    /**
+     * Get the cumulative time spent in a tick phase since the ticker started.
+     *
+     * @param phase The phase.
+     * @return The total time in nanoseconds.
+     */
+    public long getPhaseTotalNanos(TickPhase phase){
+        return phaseTotalNanos[phase.ordinal()];
+    }
+
+    /**
+     * Get the longest time a single tick spent in a tick phase since the ticker started.
+     *
+     * @param phase The phase.
+     * @return The maximum time in nanoseconds.
+     */
+    public long getPhaseMaxNanos(TickPhase phase){
+        return phaseMaxNanos[phase.ordinal()];
+    }
+
+    /**
+     * Get the amount of ticks in which a phase ran longer than its budget.
+     *
+     * @param phase The phase.
+     * @return The amount of overruns.
+     */
+    public long getPhaseOverruns(TickPhase phase){
+        return phaseOverruns[phase.ordinal()];
+    }
+
+    public RegisteredTask addDelayedTask(Task task, int delay){
+        return register(RegisteredTask.delay(task, delay));
+    }
+
+    public RegisteredTask addRepeatingTask(Task task, int repeatInterval){
+        return register(RegisteredTask.repeat(task, repeatInterval));
+    }
+
+    public RegisteredTask addDelayedRepeatingTask(Task task, int delay, int repeatInterval){
+        return register(RegisteredTask.delayAndRepeat(task, delay, repeatInterval));
     }
 
     /**
-     * Cancel a task.
+     * Cancel a task. If the task was registered more than once, the oldest registration is canceled.
      *
      * @param task The task to be canceled.
      * @return If the task was removed.
      */
-    public synchronized boolean cancelTask(Task task){
-        RegisteredTask corr = null;
+    public boolean cancelTask(Task task){
         synchronized(tasks){
-            for(RegisteredTask rt : tasks){
-                if(rt.getTask().equals(task)){
-                    corr = rt;
-                    break;
+            Deque<RegisteredTask> registered = tasks.get(task);
+            if(registered == null){
+                return false;
+            }
+            RegisteredTask rt = registered.pollFirst();
+            if(registered.isEmpty()){
+                tasks.remove(task);
+            }
+            rt.cancel();
+            if(!wheel.unschedule(rt)){
+                for(List<RegisteredTask> phase : phaseTasks.values()){
+                    phase.remove(rt);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Get the amount of tasks currently registered to this ticker.
+     *
+     * @return The amount of registered tasks.
+     */
+    public int getTaskCount(){
+        int count = wheel.size();
+        for(List<RegisteredTask> phase : phaseTasks.values()){
+            count += phase.size();
+        }
+        return count;
+    }
+
+    /**
+     * Run <code>work</code> on an async worker thread. The work must not touch server state that is owned by the
+     * ticker thread, use <code>thenSync()</code> on the returned task to hand the result back to the ticker thread.
+     * <br>
+     * If all workers are busy and the work queue is full the work is rejected and the returned task fails with
+     * a <code>RejectedExecutionException</code>.
+     *
+     * @param work The work to be ran asynchronously.
+     * @param <T>  The type of the result of the work.
+     * @return An <code>AsyncTask</code> completing with the result of the work.
+     */
+    public <T> AsyncTask<T> runAsync(Callable<T> work){
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try{
+            asyncPool.execute(() -> {
+                try{
+                    future.complete(work.call());
+                }catch(Throwable t){
+                    logAsyncFailure(t);
+                    future.completeExceptionally(t);
                 }
+            });
+        }catch(RejectedExecutionException e){
+            server.getLogger().warning("Async work rejected, %d tasks are already queued: %s", asyncPool.getQueue().size(), work);
+            future.completeExceptionally(e);
+        }
+        return new AsyncTask<>(this, future);
+    }
+
+    /**
+     * Run <code>work</code> on an async worker thread.
+     *
+     * @param work The work to be ran asynchronously.
+     * @return An <code>AsyncTask</code> completing when the work is done.
+     * @see #runAsync(Callable)
+     */
+    public AsyncTask<Void> runAsync(Runnable work){
+        return runAsync(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run <code>r</code> on the ticker thread at the end of the current or next tick. This method is thread-safe.
+     * <br>
+     * Each tick only spends up to the sync budget on these, the remaining ones are left for the following ticks.
+     *
+     * @param r The Runnable to be ran on the ticker thread.
+     */
+    public void runSync(Runnable r){
+        syncQueue.add(r);
+    }
+
+    /**
+     * Get an <code>Executor</code> running its commands on the async workers of this ticker.
+     *
+     * @return The async <code>Executor</code>.
+     */
+    public Executor getAsyncExecutor(){
+        return asyncPool;
+    }
+
+    /**
+     * Get the amount of main-thread continuations waiting to be ran.
+     *
+     * @return The amount of queued continuations.
+     */
+    public int getPendingSyncCount(){
+        return syncQueue.size();
+    }
+
+    /**
+     * Set the amount of async worker threads.
+     *
+     * @param workers The amount of workers, at least 1.
+     */
+    public void setAsyncWorkers(int workers){
+        if(workers < 1){
+            throw new IllegalArgumentException("There must be at least one async worker");
+        }
+        if(workers > asyncPool.getMaximumPoolSize()){
+            asyncPool.setMaximumPoolSize(workers);
+            asyncPool.setCorePoolSize(workers);
+        }else{
+            asyncPool.setCorePoolSize(workers);
+            asyncPool.setMaximumPoolSize(workers);
+        }
+    }
+
+    /**
+     * Set the amount of milliseconds each tick may spend on running main-thread continuations.
+     * At least one continuation is ran every tick regardless of the budget.
+     *
+     * @param millis The budget in milliseconds.
+     */
+    public void setSyncBudget(int millis){
+        if(millis < 0){
+            throw new IllegalArgumentException("Sync budget can not be negative");
+        }
+        syncBudget = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Stops accepting async work and waits for the work already submitted to finish.
+     * Used as a shutdown task so pending saves complete before the final saves run.
+     */
+    public void shutdownAsyncWorkers(){
+        asyncPool.shutdown();
+        try{
+            if(!asyncPool.awaitTermination(30, TimeUnit.SECONDS)){
+                server.getLogger().warning("Async workers did not finish within 30 seconds, %d tasks left.", asyncPool.getQueue().size());
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void logAsyncFailure(Throwable t){
+        server.getLogger().error("Exception in async task: " + t.getClass().getName() + ": " + t.getMessage());
+        server.getLogger().trace(t);
+    }
+
+    /**
+     * Get all <code>BoundTask</code>s currently registered to this ticker, so their timings can be inspected.
+     *
+     * @return A new list containing the registered bound tasks.
+     */
+    public List<BoundTask> getBoundTasks(){
+        List<BoundTask> bound = new ArrayList<>();
+        synchronized(tasks){
+            for(Task task : tasks.keySet()){
+                if(task instanceof BoundTask){
+                    bound.add((BoundTask) task);
+                }
+            }
+        }
+        return bound;
+    }
+
+    private RegisteredTask register(RegisteredTask rt){
+        synchronized(tasks){
+            tasks.computeIfAbsent(rt.getTask(), t -> new ArrayDeque<>(1)).addLast(rt);
+            wheel.schedule(rt, rt.getDelay());
+        }
+        return rt;
+    }
+
+    private void reschedule(RegisteredTask rt){
+        synchronized(tasks){
+            if(rt.isRepeating()){
+                wheel.schedule(rt, rt.getRepeatInterval());
+                return;
+            }
+            // One-shot tasks (and tasks that stopped repeating) expire here
+            Deque<RegisteredTask> registered = tasks.get(rt.getTask());
+            if(registered != null && registered.remove(rt) && registered.isEmpty()){
+                tasks.remove(rt.getTask());
             }
-            return tasks.remove(corr);
         }
     }
 
+    /**
+     * Get if this ticker is running.
+     *
+     * @return If the ticker is running.
+     */
+    public boolean isRunning(){
+        return running;
+    }
+
+    /**
+     * Set the watchdog watching this ticker. It is started by <code>start()</code> once the ticker is running.
+     *
+     * @param watchdog The watchdog, which must not be started yet.
+     */
+    public void setWatchdog(TickWatchdog watchdog){
+        if(running){
+            throw new IllegalStateException("The watchdog must be set before the ticker is started");
+        }
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Get the <code>System.nanoTime()</code> the tick that is currently running started at, used by the watchdog.
+     *
+     * @return The start of the current tick, or 0 if the ticker is between ticks.
+     */
+    long getHeartbeat(){
+        return heartbeat;
+    }
+
+    Thread getTickThread(){
+        return tickThread;
+    }
+
     public long getStartTime(){
         return startTime;
     }
+
+    /**
+     * Get the rolling tick statistics of this ticker, containing the real TPS and tick duration percentiles.
+     *
+     * @return The <code>TickStatistics</code> of this ticker.
+     */
+    public TickStatistics getStatistics(){
+        return statistics;
+    }
+
+    /**
+     * Get the current tick number.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick(){
+        return tick;
+    }
+
+    /**
+     * Set the maximum amount of late ticks that will be ran back-to-back to catch up.
+     * If the ticker falls further behind, the late ticks are dropped. A limit of zero makes the ticker
+     * never catch up, so each tick is scheduled relative to the end of the previous one.
+     *
+     * @param catchUpLimit The maximum amount of ticks to catch up.
+     */
+    public void setCatchUpLimit(int catchUpLimit){
+        if(catchUpLimit < 0){
+            throw new IllegalArgumentException("Catch-up limit can not be negative");
+        }
+        this.catchUpLimit = catchUpLimit;
+    }
+
+    public int getCatchUpLimit(){
+        return catchUpLimit;
+    }
 }
@@ -16,16 +16,30 @@
  */
 package net.redstonelamp.ticker;
 
+import net.redstonelamp.timings.Timing;
+import net.redstonelamp.timings.Timings;
+
 /**
  * An internal class used by the ticker. This represents a RegisteredTask that will
  * be ran from the ticker.
+ * <br>
+ * Registered tasks are stored in the ticker's {@link TimingWheel}, keyed by the tick they are due at,
+ * so the ticker only touches tasks that are due.
  *
  * @author RedstoneLamp Team
  */
 public class RegisteredTask{
-    private Task task;
-    private long leftTicks;
-    private int repeatInterval;
+    private final Task task;
+    private final int delay;
+    private volatile int repeatInterval;
+    private volatile boolean cancelled = false;
+    private Timing timing;
+
+    // Managed by the TimingWheel, guarded by the wheel's lock
+    long deadline;
+    RegisteredTask prev;
+    RegisteredTask next;
+    TimingWheel wheel;
 
     public static RegisteredTask delay(Task task, int delay){
         return new RegisteredTask(task, delay, 0);
@@ -41,33 +55,69 @@ public class RegisteredTask{
 
     public RegisteredTask(Task task, int delay, int repeat){
         this.task = task;
-        leftTicks = delay;
-        repeatInterval = repeat;
+        this.delay = Math.max(1, delay);
+        repeatInterval = Math.max(0, repeat);
     }
 
     /**
      * <font color="FF0000"><b>Warning: this method is frequently called.
      * Minimize the time to run this method.</b></font>
-     * <br>Number of times run per second: number of tasks * TPS
+     * <br>Runs the task. Called by the ticker on the tick the task is due.
      *
      * @param tick the current ticker tick
      */
-    public void check(long tick){
-        leftTicks--;
-        if(leftTicks == 0){
+    public void run(long tick){
+        if(!cancelled){
             task.onRun(tick);
-            leftTicks += repeatInterval;
-            // if repeat interval is 0, it will become -1 next time and won't get called again
         }
     }
 
     /**
-     * <b>Warning: this method does not unregister the task.</b> It is only for
-     * temporary usage.<br>
-     * To unregister totally, use {@link RedstoneTicker#cancelTask(Task)}.
+     * <b>Warning: this method does not unregister the task.</b> The task will not run again, and
+     * is dropped by the ticker the next time it is due.<br>
+     * To unregister immediately, use {@link RedstoneTicker#cancelTask(Task)}.
      */
     public void stopRepeating(){
-        leftTicks = -1;
+        repeatInterval = 0;
+        cancelled = true;
+    }
+
+    /**
+     * Check if this task will be rescheduled after it runs.
+     *
+     * @return If this task repeats.
+     */
+    public boolean isRepeating(){
+        return repeatInterval > 0 && !cancelled;
+    }
+
+    public int getDelay(){
+        return delay;
+    }
+
+    public int getRepeatInterval(){
+        return repeatInterval;
+    }
+
+    public boolean isCancelled(){
+        return cancelled;
+    }
+
+    /**
+     * Get the <code>Timing</code> this task's runs are recorded in. Only called from the ticker thread.
+     *
+     * @return The Timing of this task.
+     */
+    Timing getTiming(){
+        if(timing == null){
+            String name = task instanceof BoundTask ? ((BoundTask) task).getName() : task.getClass().getName();
+            timing = Timings.of("Task " + name);
+        }
+        return timing;
+    }
+
+    void cancel(){
+        cancelled = true;
     }
 
     public Task getTask(){
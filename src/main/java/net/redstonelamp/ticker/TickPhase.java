@@ -0,0 +1,79 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ticker;
+
+/**
+ * The phases of a tick, ran in declaration order. Each phase has a time budget, configured in the
+ * <code>ticker.phase-budgets</code> section of redstonelamp.yml.
+ * <br>
+ * Tasks registered with <code>RedstoneTicker.addPhaseTask()</code> run every tick in their phase. Tasks registered
+ * with the delayed/repeating methods run in the <code>WORLD</code> phase.
+ *
+ * @author RedstoneLamp Team
+ */
+public enum TickPhase{
+    /**
+     * Reading packets from the network interfaces.
+     */
+    NETWORK_INGEST("network-ingest", 5),
+    /**
+     * Handing received requests to the players.
+     */
+    REQUEST_PROCESSING("request-processing", 10),
+    /**
+     * Levels, entities and scheduled tasks.
+     */
+    WORLD("world", 15),
+    /**
+     * Broadcasting the block changes and player movements of this tick.
+     */
+    BLOCK_FLUSH("block-flush", 5),
+    /**
+     * Sending queued packets and chunks.
+     */
+    OUTBOUND_FLUSH("outbound-flush", 10),
+    /**
+     * Main-thread continuations of async work and console commands.
+     */
+    HOUSEKEEPING("housekeeping", 5);
+
+    private final String configName;
+    private final int defaultBudget;
+
+    TickPhase(String configName, int defaultBudget){
+        this.configName = configName;
+        this.defaultBudget = defaultBudget;
+    }
+
+    /**
+     * Get the name of this phase in the configuration.
+     *
+     * @return The configuration name, e.g. "network-ingest"
+     */
+    public String getConfigName(){
+        return configName;
+    }
+
+    /**
+     * Get the default budget of this phase.
+     *
+     * @return The default budget in milliseconds.
+     */
+    public int getDefaultBudget(){
+        return defaultBudget;
+    }
+}
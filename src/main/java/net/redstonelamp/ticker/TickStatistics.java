@@ -0,0 +1,203 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ticker;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling statistics of the last ticks ran by a {@link RedstoneTicker}.
+ * <br>
+ * The ticker records the start time and duration of every tick into a fixed size window,
+ * which can be queried for percentiles of the tick duration and the real TPS of the server.
+ *
+ * @author RedstoneLamp Team
+ */
+public class TickStatistics{
+    /**
+     * The default amount of ticks kept in the window (one minute at 20 TPS)
+     */
+    public static final int DEFAULT_WINDOW = 1200;
+
+    private final long[] starts;
+    private final long[] durations;
+    private int next = 0;
+    private int size = 0;
+    private long totalTicks = 0;
+    private long skippedTicks = 0;
+
+    /**
+     * Create a new <code>TickStatistics</code> keeping the last {@link #DEFAULT_WINDOW} ticks.
+     */
+    public TickStatistics(){
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Create a new <code>TickStatistics</code> keeping the last <code>window</code> ticks.
+     *
+     * @param window The amount of ticks to keep.
+     */
+    public TickStatistics(int window){
+        if(window < 2){
+            throw new IllegalArgumentException("Window must be at least 2 ticks");
+        }
+        starts = new long[window];
+        durations = new long[window];
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Records a tick, called by the ticker after every tick.
+     *
+     * @param startNanos    The <code>System.nanoTime()</code> the tick started at.
+     * @param durationNanos The amount of nanoseconds the tick took.
+     */
+    public synchronized void record(long startNanos, long durationNanos){
+        starts[next] = startNanos;
+        durations[next] = durationNanos;
+        next = (next + 1) % starts.length;
+        if(size < starts.length){
+            size++;
+        }
+        totalTicks++;
+    }
+
+    /**
+     * INTERNAL METHOD!
+     * Records ticks that were dropped because the ticker was too far behind to catch up.
+     *
+     * @param ticks The amount of ticks dropped.
+     */
+    public synchronized void recordSkipped(long ticks){
+        skippedTicks += ticks;
+    }
+
+    /**
+     * Get the real amount of ticks ran per second over the window.
+     *
+     * @return The real TPS, or 0 if not enough ticks were recorded yet.
+     */
+    public synchronized double getTPS(){
+        if(size < 2){
+            return 0D;
+        }
+        int newest = (next - 1 + starts.length) % starts.length;
+        int oldest = (next - size + starts.length) % starts.length;
+        long elapsed = starts[newest] - starts[oldest];
+        if(elapsed <= 0){
+            return 0D;
+        }
+        return (size - 1) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Get a percentile of the tick durations in the window.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The tick duration at that percentile in nanoseconds, or 0 if no ticks were recorded yet.
+     */
+    public long getPercentile(double percentile){
+        long[] sorted = sortedDurations();
+        return percentile(sorted, percentile);
+    }
+
+    /**
+     * Get the median tick duration in the window.
+     *
+     * @return The median tick duration in nanoseconds.
+     */
+    public long getMedian(){
+        return getPercentile(50D);
+    }
+
+    /**
+     * Get the longest tick duration in the window.
+     *
+     * @return The longest tick duration in nanoseconds.
+     */
+    public synchronized long getMax(){
+        long max = 0;
+        for(int i = 0; i < size; i++){
+            max = Math.max(max, durations[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Get the mean tick duration in the window.
+     *
+     * @return The mean tick duration in nanoseconds.
+     */
+    public synchronized long getMean(){
+        if(size == 0){
+            return 0;
+        }
+        long total = 0;
+        for(int i = 0; i < size; i++){
+            total += durations[i];
+        }
+        return total / size;
+    }
+
+    /**
+     * Get the amount of ticks ran since the ticker started.
+     *
+     * @return The total amount of ticks.
+     */
+    public synchronized long getTotalTicks(){
+        return totalTicks;
+    }
+
+    /**
+     * Get the amount of ticks that were dropped because the ticker could not catch up.
+     *
+     * @return The total amount of skipped ticks.
+     */
+    public synchronized long getSkippedTicks(){
+        return skippedTicks;
+    }
+
+    /**
+     * Get a one-line summary of these statistics, used by the <code>/tps</code> command and load warnings.
+     *
+     * @return A summary of the TPS and tick duration percentiles.
+     */
+    public String summary(){
+        long[] sorted = sortedDurations();
+        return String.format("TPS: %.2f, tick p50: %.2fms, p95: %.2fms, p99: %.2fms, max: %.2fms",
+                getTPS(),
+                percentile(sorted, 50D) / 1000000D,
+                percentile(sorted, 95D) / 1000000D,
+                percentile(sorted, 99D) / 1000000D,
+                (sorted.length == 0 ? 0 : sorted[sorted.length - 1]) / 1000000D);
+    }
+
+    private synchronized long[] sortedDurations(){
+        long[] sorted = Arrays.copyOf(durations, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static long percentile(long[] sorted, double percentile){
+        if(sorted.length == 0){
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100D * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ticker;
+
+import net.redstonelamp.ui.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the heartbeat of a <code>RedstoneTicker</code>.
+ * <br>
+ * When a tick runs longer than the stall threshold, the stack of the tick thread is sampled until the tick finishes,
+ * and an aggregated report of where the tick was stuck is logged. When a tick runs past the hard limit the report
+ * is logged while the tick is still stuck, optionally followed by a dump of all threads.
+ *
+ * @author RedstoneLamp Team
+ */
+public class TickWatchdog extends Thread{
+    private static final long IDLE_POLL_MILLIS = 50;
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+    private static final int MAX_FRAMES = 12;
+    private static final int REPORTED_STACKS = 5;
+    private final RedstoneTicker ticker;
+    private final Logger logger;
+    private final long stallThreshold;
+    private final long hardLimit;
+    private final boolean dumpThreads;
+
+    private final Map<String, Integer> samples = new HashMap<>();
+    private int sampleCount = 0;
+    private long stalledBeat = 0;
+    private long lastSample = 0;
+    private boolean hardLimitReported = false;
+
+    /**
+     * Create a new watchdog for the specified ticker. The watchdog is started by the ticker, see
+     * <code>RedstoneTicker.setWatchdog()</code>.
+     *
+     * @param ticker         The ticker to watch.
+     * @param logger         The logger reports are logged to.
+     * @param stallThreshold The amount of milliseconds a tick may take before it is sampled.
+     * @param hardLimit      The amount of milliseconds after which the report is logged while still stuck.
+     * @param dumpThreads    If all threads should be dumped when a tick passes the hard limit.
+     */
+    public TickWatchdog(RedstoneTicker ticker, Logger logger, int stallThreshold, int hardLimit, boolean dumpThreads){
+        super("TickWatchdog");
+        setDaemon(true);
+        this.ticker = ticker;
+        this.logger = logger;
+        this.stallThreshold = TimeUnit.MILLISECONDS.toNanos(stallThreshold);
+        this.hardLimit = TimeUnit.MILLISECONDS.toNanos(hardLimit);
+        this.dumpThreads = dumpThreads;
+    }
+
+    @Override
+    public void run(){
+        try{
+            while(ticker.isRunning()){
+                long beat = ticker.getHeartbeat();
+                if(sampleCount > 0 && beat != stalledBeat){
+                    // The stalled tick has finished
+                    report("Tick took at least " + TimeUnit.NANOSECONDS.toMillis(lastSample - stalledBeat) + "ms");
+                    clear();
+                }
+                long now = System.nanoTime();
+                if(beat != 0 && now - beat > stallThreshold){
+                    stalledBeat = beat;
+                    sample();
+                    if(!hardLimitReported && now - beat > hardLimit){
+                        hardLimitReported = true;
+                        report("Tick has been running for " + TimeUnit.NANOSECONDS.toMillis(now - beat) + "ms and is still running");
+                        if(dumpThreads){
+                            dumpAllThreads();
+                        }
+                    }
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                }else{
+                    Thread.sleep(IDLE_POLL_MILLIS);
+                }
+            }
+        }catch(InterruptedException e){
+            // Stopped
+        }
+    }
+
+    private void sample(){
+        Thread thread = ticker.getTickThread();
+        if(thread == null){
+            return;
+        }
+        StackTraceElement[] stack = thread.getStackTrace();
+        lastSample = System.nanoTime();
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < stack.length && i < MAX_FRAMES; i++){
+            sb.append("\n        at ").append(stack[i]);
+        }
+        samples.merge(sb.toString(), 1, Integer::sum);
+        sampleCount++;
+    }
+
+    private void report(String title){
+        logger.warning("%s, the tick thread was sampled %d times. Where the tick was stuck:", title, sampleCount);
+        List<Map.Entry<String, Integer>> stacks = new ArrayList<>(samples.entrySet());
+        stacks.sort((a, b) -> b.getValue() - a.getValue());
+        for(int i = 0; i < stacks.size() && i < REPORTED_STACKS; i++){
+            Map.Entry<String, Integer> entry = stacks.get(i);
+            logger.warning("    %d%% (%d samples):%s", entry.getValue() * 100 / sampleCount, entry.getValue(), entry.getKey());
+        }
+        if(stacks.size() > REPORTED_STACKS){
+            logger.warning("    ... and %d other stacks", stacks.size() - REPORTED_STACKS);
+        }
+    }
+
+    private void dumpAllThreads(){
+        logger.error("Dumping all threads:");
+        for(Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()){
+            StringBuilder sb = new StringBuilder();
+            sb.append("\"").append(entry.getKey().getName()).append("\" ").append(entry.getKey().getState());
+            for(StackTraceElement element : entry.getValue()){
+                sb.append("\n        at ").append(element);
+            }
+            logger.error("%s", sb);
+        }
+    }
+
+    private void clear(){
+        samples.clear();
+        sampleCount = 0;
+        stalledBeat = 0;
+        hardLimitReported = false;
+    }
+}
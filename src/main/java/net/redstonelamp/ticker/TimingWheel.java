@@ -0,0 +1,138 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ticker;
+
+import java.util.List;
+
+/**
+ * A hashed timing wheel holding the {@link RegisteredTask}s of a ticker.
+ * <br>
+ * Each task is linked into the slot of the tick it is due at, so scheduling and cancelling are O(1)
+ * and advancing the wheel only walks a single slot. Tasks due further away than the size of the wheel
+ * share a slot with earlier ticks and are skipped until their deadline is reached.
+ *
+ * @author RedstoneLamp Team
+ */
+public class TimingWheel{
+    /**
+     * The default amount of slots in the wheel, covering 25.6 seconds at 20 TPS.
+     */
+    public static final int DEFAULT_SLOTS = 512;
+
+    private final RegisteredTask[] slots;
+    private final int mask;
+    private long currentTick = -1L;
+    private int size = 0;
+
+    public TimingWheel(){
+        this(DEFAULT_SLOTS);
+    }
+
+    /**
+     * Create a new <code>TimingWheel</code> with the specified amount of slots.
+     *
+     * @param slots The amount of slots, must be a power of two.
+     */
+    public TimingWheel(int slots){
+        if(slots <= 0 || Integer.bitCount(slots) != 1){
+            throw new IllegalArgumentException("Slot count must be a power of two");
+        }
+        this.slots = new RegisteredTask[slots];
+        mask = slots - 1;
+    }
+
+    /**
+     * Schedule a task to be due <code>delay</code> ticks after the last tick the wheel was advanced to.
+     *
+     * @param task  The task to be scheduled.
+     * @param delay The amount of ticks until the task is due, at least one.
+     */
+    public synchronized void schedule(RegisteredTask task, int delay){
+        if(task.wheel != null){
+            throw new IllegalStateException("Task is already scheduled");
+        }
+        task.deadline = currentTick + Math.max(1, delay);
+        int index = (int) (task.deadline & mask);
+        task.wheel = this;
+        task.prev = null;
+        task.next = slots[index];
+        if(slots[index] != null){
+            slots[index].prev = task;
+        }
+        slots[index] = task;
+        size++;
+    }
+
+    /**
+     * Remove a task from the wheel.
+     *
+     * @param task The task to be removed.
+     * @return If the task was scheduled in this wheel.
+     */
+    public synchronized boolean unschedule(RegisteredTask task){
+        if(task.wheel != this){
+            return false;
+        }
+        unlink(task, (int) (task.deadline & mask));
+        return true;
+    }
+
+    /**
+     * Advance the wheel to <code>tick</code>, removing every task that is due and adding it to <code>due</code>.
+     * Only the slot belonging to <code>tick</code> is walked.
+     *
+     * @param tick The tick the wheel is advanced to.
+     * @param due  The list the due tasks are added to, in no particular order.
+     */
+    public synchronized void advance(long tick, List<RegisteredTask> due){
+        currentTick = tick;
+        int index = (int) (tick & mask);
+        RegisteredTask task = slots[index];
+        while(task != null){
+            RegisteredTask next = task.next;
+            if(task.deadline <= tick){
+                unlink(task, index);
+                due.add(task);
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * Get the amount of tasks scheduled in this wheel.
+     *
+     * @return The amount of scheduled tasks.
+     */
+    public synchronized int size(){
+        return size;
+    }
+
+    private void unlink(RegisteredTask task, int index){
+        if(task.prev != null){
+            task.prev.next = task.next;
+        }else{
+            slots[index] = task.next;
+        }
+        if(task.next != null){
+            task.next.prev = task.prev;
+        }
+        task.prev = null;
+        task.next = null;
+        task.wheel = null;
+        size--;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.timings;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A nanosecond accumulator for one source of work, obtained from <code>Timings.of()</code>.
+ * <br>
+ * Usage:
+ * <pre>
+ * long start = timing.start();
+ * try{
+ *     doWork();
+ * }finally{
+ *     timing.stop(start);
+ * }
+ * </pre>
+ * When timings are disabled <code>start()</code> returns 0 and <code>stop()</code> does nothing.
+ * This class is thread-safe.
+ *
+ * @author RedstoneLamp Team
+ */
+public class Timing{
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    Timing(String name){
+        this.name = name;
+    }
+
+    /**
+     * Start timing a piece of work.
+     *
+     * @return The start time to pass to <code>stop()</code>, or 0 if timings are disabled.
+     */
+    public long start(){
+        return Timings.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stop timing a piece of work and record its duration.
+     *
+     * @param start The value returned by <code>start()</code>.
+     */
+    public void stop(long start){
+        if(start != 0L){
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a piece of work that has already been measured.
+     *
+     * @param nanos The duration of the work in nanoseconds.
+     */
+    public void record(long nanos){
+        count.increment();
+        totalNanos.add(nanos);
+        long max;
+        while(nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)){
+            // Retry
+        }
+    }
+
+    void reset(){
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public long getCount(){
+        return count.sum();
+    }
+
+    public long getTotalNanos(){
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos(){
+        return maxNanos.get();
+    }
+
+    @Override
+    public String toString(){
+        return "Timing{name: " + name + ", count: " + getCount() + ", total: " + getTotalNanos() + "ns}";
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.timings;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of all <code>Timing</code>s. Timings are disabled by default and turned on with <code>/timings on</code>.
+ * <br>
+ * Sources cache their <code>Timing</code> and skip building its name while timings are disabled, so the cost of
+ * a disabled timing is a volatile read.
+ *
+ * @author RedstoneLamp Team
+ */
+public class Timings{
+    private static final Map<String, Timing> timings = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = false;
+    private static volatile long since = System.nanoTime();
+
+    private Timings(){
+    }
+
+    /**
+     * Get the <code>Timing</code> with the specified name, creating it if it does not exist.
+     *
+     * @param name The name of the timing, e.g. "Task LevelManager"
+     * @return The Timing.
+     */
+    public static Timing of(String name){
+        return timings.computeIfAbsent(name, Timing::new);
+    }
+
+    public static boolean isEnabled(){
+        return enabled;
+    }
+
+    /**
+     * Turn timings on or off. Turning timings on resets all timings.
+     *
+     * @param enabled If timings should be recorded.
+     */
+    public static void setEnabled(boolean enabled){
+        if(enabled && !Timings.enabled){
+            reset();
+        }
+        Timings.enabled = enabled;
+    }
+
+    /**
+     * Reset all timings to zero.
+     */
+    public static void reset(){
+        timings.values().forEach(Timing::reset);
+        since = System.nanoTime();
+    }
+
+    /**
+     * Get the amount of nanoseconds since the timings were last reset.
+     *
+     * @return The length of the current timings period.
+     */
+    public static long getPeriodNanos(){
+        return System.nanoTime() - since;
+    }
+
+    /**
+     * Get all timings that have recorded work, the most expensive first.
+     *
+     * @return A new list of timings sorted by total time.
+     */
+    public static List<Timing> getSorted(){
+        List<Timing> sorted = new ArrayList<>();
+        for(Timing timing : timings.values()){
+            if(timing.getCount() > 0){
+                sorted.add(timing);
+            }
+        }
+        sorted.sort(Comparator.comparingLong(Timing::getTotalNanos).reversed());
+        return sorted;
+    }
+
+    /**
+     * Get a machine-readable dump of all timings that have recorded work.
+     *
+     * @return A JSONObject containing the period length and all timings, in nanoseconds.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject toJSON(){
+        JSONObject root = new JSONObject();
+        root.put("periodNanos", getPeriodNanos());
+        root.put("enabled", enabled);
+        JSONArray entries = new JSONArray();
+        for(Timing timing : getSorted()){
+            JSONObject entry = new JSONObject();
+            entry.put("name", timing.getName());
+            entry.put("count", timing.getCount());
+            entry.put("totalNanos", timing.getTotalNanos());
+            entry.put("maxNanos", timing.getMaxNanos());
+            entries.add(entry);
+        }
+        root.put("timings", entries);
+        return root;
+    }
+
+    /**
+     * Format a single timing as a report line.
+     *
+     * @param timing The timing to be formatted.
+     * @return The report line.
+     */
+    public static String format(Timing timing){
+        long period = Math.max(1, getPeriodNanos());
+        return String.format("%s: %d calls, total %.2fms (%.2f%%), avg %.3fms, max %.3fms", timing.getName(), timing.getCount(),
+                timing.getTotalNanos() / 1e6, timing.getTotalNanos() * 100D / period,
+                timing.getTotalNanos() / 1e6 / timing.getCount(), timing.getMaxNanos() / 1e6);
+    }
+
+    /**
+     * Get the length of the current timings period in seconds.
+     *
+     * @return The period in seconds.
+     */
+    public static long getPeriodSeconds(){
+        return TimeUnit.NANOSECONDS.toSeconds(getPeriodNanos());
+    }
+}
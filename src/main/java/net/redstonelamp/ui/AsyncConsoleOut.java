@@ -0,0 +1,138 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ui;
+
+/**
+ * An implementation of <code>ConsoleOut</code> that hands messages to an <code>AsyncLogWriter</code>, which writes
+ * them to another <code>ConsoleOut</code> (the sink) on its own thread.
+ *
+ * @author RedstoneLamp Team
+ */
+public class AsyncConsoleOut extends ConsoleOut{
+    private final ConsoleOut sink;
+    private final AsyncLogWriter writer;
+
+    /**
+     * Create a new <code>AsyncConsoleOut</code> that writes to <code>sink</code> through <code>writer</code>
+     *
+     * @param sink   The <code>ConsoleOut</code> messages are written to
+     * @param writer The <code>AsyncLogWriter</code> that writes the messages
+     */
+    public AsyncConsoleOut(ConsoleOut sink, AsyncLogWriter writer){
+        super(sink.getName());
+        this.sink = sink;
+        this.writer = writer;
+    }
+
+    /**
+     * Create a new <code>AsyncConsoleOut</code> with the specified name, writing to a new log4j2 logger through the
+     * default <code>AsyncLogWriter</code>.
+     *
+     * @param name The log4j2 Logger name.
+     */
+    public AsyncConsoleOut(String name){
+        this(new Log4j2ConsoleOut(name), AsyncLogWriter.getDefault());
+    }
+
+    @Override
+    public void trace(String msg){
+        writer.write(sink, AsyncLogWriter.TRACE, msg);
+    }
+
+    @Override
+    public void debug(String msg){
+        writer.write(sink, AsyncLogWriter.DEBUG, msg);
+    }
+
+    @Override
+    public void info(String msg){
+        writer.write(sink, AsyncLogWriter.INFO, msg);
+    }
+
+    @Override
+    public void warning(String msg){
+        writer.write(sink, AsyncLogWriter.WARNING, msg);
+    }
+
+    @Override
+    public void error(String msg){
+        writer.write(sink, AsyncLogWriter.ERROR, msg);
+    }
+
+    @Override
+    public void fatal(String msg){
+        writer.write(sink, AsyncLogWriter.FATAL, msg);
+    }
+
+    @Override
+    public boolean isTraceEnabled(){
+        return sink.isTraceEnabled();
+    }
+
+    @Override
+    public boolean isDebugEnabled(){
+        return sink.isDebugEnabled();
+    }
+
+    @Override
+    public boolean isInfoEnabled(){
+        return sink.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isWarningEnabled(){
+        return sink.isWarningEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled(){
+        return sink.isErrorEnabled();
+    }
+
+    @Override
+    public boolean isFatalEnabled(){
+        return sink.isFatalEnabled();
+    }
+
+    @Override
+    public boolean isThreadSafe(){
+        return true;
+    }
+
+    @Override
+    public void flush(){
+        writer.flush(1000);
+    }
+
+    /**
+     * Get the <code>ConsoleOut</code> messages are written to
+     *
+     * @return The sink of this <code>AsyncConsoleOut</code>
+     */
+    public ConsoleOut getSink(){
+        return sink;
+    }
+
+    /**
+     * Get the <code>AsyncLogWriter</code> writing the messages of this <code>AsyncConsoleOut</code>
+     *
+     * @return The writer
+     */
+    public AsyncLogWriter getWriter(){
+        return writer;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log messages to their <code>ConsoleOut</code> on a single background thread. Messages are handed over through
+ * a bounded lock-free ring buffer, so logging threads never wait for console I/O. When the buffer is full, messages
+ * are either dropped (and counted) or the logging thread waits for space, depending on the <code>OverflowPolicy</code>.
+ *
+ * @author RedstoneLamp Team
+ */
+public class AsyncLogWriter{
+    static final byte TRACE = 0;
+    static final byte DEBUG = 1;
+    static final byte INFO = 2;
+    static final byte WARNING = 3;
+    static final byte ERROR = 4;
+    static final byte FATAL = 5;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static AsyncLogWriter defaultWriter;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final ConsoleOut[] sinks;
+    private final byte[] levels;
+    private final String[] messages;
+    private final OverflowPolicy policy;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported = 0;
+    private final Thread thread;
+    private volatile boolean sleeping = false;
+    private volatile boolean running = true;
+
+    /**
+     * Create and start a new <code>AsyncLogWriter</code>
+     *
+     * @param capacity The amount of messages that can wait to be written, rounded up to a power of two
+     * @param policy   What to do with messages logged while the buffer is full
+     */
+    public AsyncLogWriter(int capacity, OverflowPolicy policy){
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        for(int i = 0; i < size; i++){
+            sequences.set(i, i);
+        }
+        sinks = new ConsoleOut[size];
+        levels = new byte[size];
+        messages = new String[size];
+        this.policy = policy;
+        thread = new Thread(this::run, "Log writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the writer used by <code>AsyncConsoleOut</code>s that were not given one. If none has been set, a writer
+     * with a buffer of 8192 messages that drops messages on overflow is created.
+     *
+     * @return The default <code>AsyncLogWriter</code>
+     */
+    public static synchronized AsyncLogWriter getDefault(){
+        if(defaultWriter == null){
+            defaultWriter = new AsyncLogWriter(8192, OverflowPolicy.DROP);
+        }
+        return defaultWriter;
+    }
+
+    /**
+     * Set the writer used by <code>AsyncConsoleOut</code>s that were not given one.
+     *
+     * @param writer The new default <code>AsyncLogWriter</code>
+     */
+    public static synchronized void setDefault(AsyncLogWriter writer){
+        defaultWriter = writer;
+    }
+
+    void write(ConsoleOut sink, byte level, String msg){
+        if(!running || Thread.currentThread() == thread){
+            writeNow(sink, level, msg);
+            return;
+        }
+        while(!offer(sink, level, msg)){
+            if(policy == OverflowPolicy.DROP){
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            if(!running){
+                writeNow(sink, level, msg);
+                return;
+            }
+        }
+        if(sleeping){
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private boolean offer(ConsoleOut sink, byte level, String msg){
+        long pos = tail.get();
+        while(true){
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if(diff == 0){
+                if(tail.compareAndSet(pos, pos + 1)){
+                    sinks[index] = sink;
+                    levels[index] = level;
+                    messages[index] = msg;
+                    sequences.set(index, pos + 1); // Publishes the slot to the writer thread
+                    return true;
+                }
+                pos = tail.get();
+            }else if(diff < 0){
+                return false; // The slot from the previous lap was not written yet, the buffer is full
+            }else{
+                pos = tail.get();
+            }
+        }
+    }
+
+    private boolean poll(){
+        long pos = head;
+        int index = (int) (pos & mask);
+        if(sequences.get(index) != pos + 1){
+            return false;
+        }
+        ConsoleOut sink = sinks[index];
+        byte level = levels[index];
+        String msg = messages[index];
+        sinks[index] = null;
+        messages[index] = null;
+        sequences.set(index, pos + mask + 1); // Free the slot for the next lap
+        head = pos + 1;
+        reportDropped(sink);
+        writeNow(sink, level, msg);
+        return true;
+    }
+
+    private void run(){
+        while(running){
+            if(!poll()){
+                sleeping = true;
+                if(sequences.get((int) (head & mask)) != head + 1){
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+        while(poll()); // Write what is left after close()
+    }
+
+    private void reportDropped(ConsoleOut sink){
+        long count = dropped.get();
+        if(count != droppedReported){
+            writeNow(sink, WARNING, (count - droppedReported) + " log messages were dropped because the log buffer was full.");
+            droppedReported = count;
+        }
+    }
+
+    private static void writeNow(ConsoleOut sink, byte level, String msg){
+        try{
+            switch(level){
+                case TRACE:
+                    sink.trace(msg);
+                    break;
+                case DEBUG:
+                    sink.debug(msg);
+                    break;
+                case INFO:
+                    sink.info(msg);
+                    break;
+                case WARNING:
+                    sink.warning(msg);
+                    break;
+                case ERROR:
+                    sink.error(msg);
+                    break;
+                default:
+                    sink.fatal(msg);
+                    break;
+            }
+        }catch(RuntimeException e){
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Wait until all messages logged before this call are written, or until <code>timeout</code> milliseconds passed.
+     *
+     * @param timeout The maximum amount of milliseconds to wait
+     */
+    public void flush(long timeout){
+        long target = tail.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while(head < target && running && thread != Thread.currentThread() && System.nanoTime() < deadline){
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Write the remaining messages and stop the writer thread. Messages logged afterwards are written on the logging
+     * thread.
+     */
+    public void close(){
+        running = false;
+        LockSupport.unpark(thread);
+        try{
+            thread.join(1000);
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the amount of messages dropped because the buffer was full
+     *
+     * @return The amount of dropped messages
+     */
+    public long getDropped(){
+        return dropped.get();
+    }
+
+    /**
+     * Get the amount of messages waiting to be written
+     *
+     * @return The amount of pending messages
+     */
+    public int getPending(){
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Get the amount of messages that fit in the buffer
+     *
+     * @return The capacity of the buffer
+     */
+    public int getCapacity(){
+        return mask + 1;
+    }
+
+    /**
+     * What happens to a message that is logged while the buffer is full
+     */
+    public enum OverflowPolicy{
+        /**
+         * The message is discarded and counted. The amount of dropped messages is logged once there is space again.
+         */
+        DROP,
+        /**
+         * The logging thread waits until the writer thread made space.
+         */
+        BLOCK
+    }
+}
@@ -75,6 +75,82 @@ public abstract class ConsoleOut{
      */
     public abstract void fatal(String msg);
 
+    /**
+     * Check if TRACE Level messages written to this <code>ConsoleOut</code> are output. Callers use this to skip
+     * building messages that would be discarded.
+     *
+     * @return If TRACE messages are enabled, true by default
+     */
+    public boolean isTraceEnabled(){
+        return true;
+    }
+
+    /**
+     * Check if DEBUG Level messages written to this <code>ConsoleOut</code> are output. Callers use this to skip
+     * building messages that would be discarded.
+     *
+     * @return If DEBUG messages are enabled, true by default
+     */
+    public boolean isDebugEnabled(){
+        return true;
+    }
+
+    /**
+     * Check if INFO Level messages written to this <code>ConsoleOut</code> are output. Callers use this to skip
+     * building messages that would be discarded.
+     *
+     * @return If INFO messages are enabled, true by default
+     */
+    public boolean isInfoEnabled(){
+        return true;
+    }
+
+    /**
+     * Check if WARNING Level messages written to this <code>ConsoleOut</code> are output. Callers use this to skip
+     * building messages that would be discarded.
+     *
+     * @return If WARNING messages are enabled, true by default
+     */
+    public boolean isWarningEnabled(){
+        return true;
+    }
+
+    /**
+     * Check if ERROR Level messages written to this <code>ConsoleOut</code> are output. Callers use this to skip
+     * building messages that would be discarded.
+     *
+     * @return If ERROR messages are enabled, true by default
+     */
+    public boolean isErrorEnabled(){
+        return true;
+    }
+
+    /**
+     * Check if FATAL Level messages written to this <code>ConsoleOut</code> are output. Callers use this to skip
+     * building messages that would be discarded.
+     *
+     * @return If FATAL messages are enabled, true by default
+     */
+    public boolean isFatalEnabled(){
+        return true;
+    }
+
+    /**
+     * Check if this <code>ConsoleOut</code> may be written to from multiple threads at once. If not, the
+     * <code>Logger</code> synchronizes on it.
+     *
+     * @return If this <code>ConsoleOut</code> is thread-safe, false by default
+     */
+    public boolean isThreadSafe(){
+        return false;
+    }
+
+    /**
+     * Wait until the messages written so far have been output. Does nothing by default.
+     */
+    public void flush(){
+    }
+
     /**
      * Get the name of the ConsoleOut
      *
@@ -0,0 +1,76 @@
+/*
+ * This file is part of RedstoneLamp.
+ *
+ * RedstoneLamp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * RedstoneLamp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with RedstoneLamp.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.redstonelamp.ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads console input on its own thread into a bounded command queue.
+ * <br>
+ * The ticker polls the queue, so reading the console never blocks a tick. When the queue is full the reader
+ * simply stops reading until there is space again, leaving the rest of the input buffered in the stream.
+ *
+ * @author RedstoneLamp Team
+ */
+public class ConsoleReader extends Thread{
+    /**
+     * The maximum amount of console lines waiting to be executed.
+     */
+    public static final int QUEUE_CAPACITY = 64;
+    private final BufferedReader reader;
+    private final Logger logger;
+    private final BlockingQueue<String> commands = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    public ConsoleReader(InputStream in, Logger logger){
+        super("ConsoleReader");
+        setDaemon(true);
+        reader = new BufferedReader(new InputStreamReader(in));
+        this.logger = logger;
+    }
+
+    @Override
+    public void run(){
+        try{
+            String line;
+            while((line = reader.readLine()) != null){
+                line = line.trim();
+                if(!line.isEmpty()){
+                    commands.put(line);
+                }
+            }
+        }catch(IOException e){
+            logger.warning("Console input is no longer readable: %s", e.getMessage());
+            logger.trace(e);
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the next console line waiting to be executed.
+     *
+     * @return The next line, or null if there is none.
+     */
+    public String poll(){
+        return commands.poll();
+    }
+}
@@ -76,4 +76,39 @@ public class Log4j2ConsoleOut extends ConsoleOut{
     public void fatal(String msg){
         logger.fatal(msg);
     }
+
+    @Override
+    public boolean isThreadSafe(){
+        return true;
+    }
+
+    @Override
+    public boolean isTraceEnabled(){
+        return logger.isTraceEnabled();
+    }
+
+    @Override
+    public boolean isDebugEnabled(){
+        return logger.isDebugEnabled();
+    }
+
+    @Override
+    public boolean isInfoEnabled(){
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isWarningEnabled(){
+        return logger.isWarnEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled(){
+        return logger.isErrorEnabled();
+    }
+
+    @Override
+    public boolean isFatalEnabled(){
+        return logger.isFatalEnabled();
+    }
 }
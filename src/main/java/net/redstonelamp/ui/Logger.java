@@ -18,6 +18,7 @@ package net.redstonelamp.ui;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.function.Supplier;
 
 /**
  * Represents a Logger for RedstoneLamp. You can create loggers that log to different <code>ConsoleOut</code>'s
@@ -25,7 +26,9 @@ import java.io.StringWriter;
  * @author RedstoneLamp Team
  */
 public class Logger{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
     private final ConsoleOut out;
+    private final boolean threadSafe;
 
     /**
      * Create a new <code>Logger</code> that writes to the specified <code>ConsoleOut</code>
@@ -34,98 +37,297 @@ public class Logger{
      */
     public Logger(ConsoleOut out){
         this.out = out;
+        threadSafe = out.isThreadSafe();
     }
 
     /**
-     * Log a TRACE level message to the underlying <code>ConsoleOut</code>
+     * Check if TRACE level messages are written by the underlying <code>ConsoleOut</code>
+     *
+     * @return If TRACE messages are enabled
+     */
+    public boolean isTraceEnabled(){
+        return out.isTraceEnabled();
+    }
+
+    /**
+     * Check if DEBUG level messages are written by the underlying <code>ConsoleOut</code>
+     *
+     * @return If DEBUG messages are enabled
+     */
+    public boolean isDebugEnabled(){
+        return out.isDebugEnabled();
+    }
+
+    /**
+     * Check if INFO level messages are written by the underlying <code>ConsoleOut</code>
+     *
+     * @return If INFO messages are enabled
+     */
+    public boolean isInfoEnabled(){
+        return out.isInfoEnabled();
+    }
+
+    /**
+     * Check if WARNING level messages are written by the underlying <code>ConsoleOut</code>
+     *
+     * @return If WARNING messages are enabled
+     */
+    public boolean isWarningEnabled(){
+        return out.isWarningEnabled();
+    }
+
+    /**
+     * Check if ERROR level messages are written by the underlying <code>ConsoleOut</code>
+     *
+     * @return If ERROR messages are enabled
+     */
+    public boolean isErrorEnabled(){
+        return out.isErrorEnabled();
+    }
+
+    /**
+     * Check if FATAL level messages are written by the underlying <code>ConsoleOut</code>
+     *
+     * @return If FATAL messages are enabled
+     */
+    public boolean isFatalEnabled(){
+        return out.isFatalEnabled();
+    }
+
+    /**
+     * Log a TRACE level message to the underlying <code>ConsoleOut</code>. The message is only formatted if TRACE is enabled.
      *
      * @param msg  The Message to be logged.
      * @param args Any arguments used for formatting (If your <code>msg</code> contains formatting characters)
      */
     public void trace(String msg, Object... args){
+        if(out.isTraceEnabled()){
+            writeTrace(String.format(msg, args));
+        }
+    }
+
+    /**
+     * Log a TRACE level message to the underlying <code>ConsoleOut</code>. The supplier is only called if TRACE is enabled.
+     *
+     * @param msg Supplies the Message to be logged.
+     */
+    public void trace(Supplier<String> msg){
+        if(out.isTraceEnabled()){
+            writeTrace(msg.get());
+        }
+    }
+
+    private void writeTrace(String msg){
+        if(threadSafe){
+            out.trace(msg);
+            return;
+        }
         synchronized(out){
-            out.trace(String.format(msg, args));
+            out.trace(msg);
         }
     }
 
     /**
-     * Log a DEBUG level message to the underlying <code>ConsoleOut</code>
+     * Log a DEBUG level message to the underlying <code>ConsoleOut</code>. The message is only formatted if DEBUG is enabled.
      *
      * @param msg  The Message to be logged.
      * @param args Any arguments used for formatting (If your <code>msg</code> contains formatting characters)
      */
     public void debug(String msg, Object... args){
+        if(out.isDebugEnabled()){
+            writeDebug(String.format(msg, args));
+        }
+    }
+
+    /**
+     * Log a DEBUG level message to the underlying <code>ConsoleOut</code>. The supplier is only called if DEBUG is enabled.
+     *
+     * @param msg Supplies the Message to be logged.
+     */
+    public void debug(Supplier<String> msg){
+        if(out.isDebugEnabled()){
+            writeDebug(msg.get());
+        }
+    }
+
+    private void writeDebug(String msg){
+        if(threadSafe){
+            out.debug(msg);
+            return;
+        }
         synchronized(out){
-            out.debug(String.format(msg, args));
+            out.debug(msg);
         }
     }
 
     /**
-     * Log an INFO level message to the underlying <code>ConsoleOut</code>
+     * Log an INFO level message to the underlying <code>ConsoleOut</code>. The message is only formatted if INFO is enabled.
      *
      * @param msg  The Message to be logged.
      * @param args Any arguments used for formatting (If your <code>msg</code> contains formatting characters)
      */
     public void info(String msg, Object... args){
+        if(out.isInfoEnabled()){
+            writeInfo(String.format(msg, args));
+        }
+    }
+
+    /**
+     * Log an INFO level message to the underlying <code>ConsoleOut</code>. The supplier is only called if INFO is enabled.
+     *
+     * @param msg Supplies the Message to be logged.
+     */
+    public void info(Supplier<String> msg){
+        if(out.isInfoEnabled()){
+            writeInfo(msg.get());
+        }
+    }
+
+    private void writeInfo(String msg){
+        if(threadSafe){
+            out.info(msg);
+            return;
+        }
         synchronized(out){
-            out.info(String.format(msg, args));
+            out.info(msg);
         }
     }
 
     /**
-     * Log a WARNING level message to the underlying <code>ConsoleOut</code>
+     * Log a WARNING level message to the underlying <code>ConsoleOut</code>. The message is only formatted if WARNING is enabled.
      *
      * @param msg  The Message to be logged.
      * @param args Any arguments used for formatting (If your <code>msg</code> contains formatting characters)
      */
     public void warning(String msg, Object... args){
+        if(out.isWarningEnabled()){
+            writeWarning(String.format(msg, args));
+        }
+    }
+
+    /**
+     * Log a WARNING level message to the underlying <code>ConsoleOut</code>. The supplier is only called if WARNING is enabled.
+     *
+     * @param msg Supplies the Message to be logged.
+     */
+    public void warning(Supplier<String> msg){
+        if(out.isWarningEnabled()){
+            writeWarning(msg.get());
+        }
+    }
+
+    private void writeWarning(String msg){
+        if(threadSafe){
+            out.warning(msg);
+            return;
+        }
         synchronized(out){
-            out.warning(String.format(msg, args));
+            out.warning(msg);
         }
     }
 
     /**
-     * Log an ERROR level message to the underlying <code>ConsoleOut</code>
+     * Log an ERROR level message to the underlying <code>ConsoleOut</code>. The message is only formatted if ERROR is enabled.
      *
      * @param msg  The Message to be logged.
      * @param args Any arguments used for formatting (If your <code>msg</code> contains formatting characters)
      */
     public void error(String msg, Object... args){
+        if(out.isErrorEnabled()){
+            writeError(String.format(msg, args));
+        }
+    }
+
+    /**
+     * Log an ERROR level message to the underlying <code>ConsoleOut</code>. The supplier is only called if ERROR is enabled.
+     *
+     * @param msg Supplies the Message to be logged.
+     */
+    public void error(Supplier<String> msg){
+        if(out.isErrorEnabled()){
+            writeError(msg.get());
+        }
+    }
+
+    private void writeError(String msg){
+        if(threadSafe){
+            out.error(msg);
+            return;
+        }
         synchronized(out){
-            out.error(String.format(msg, args));
+            out.error(msg);
         }
     }
 
     /**
-     * Log a FATAL level message to the underlying <code>ConsoleOut</code>
+     * Log a FATAL level message to the underlying <code>ConsoleOut</code>. The message is only formatted if FATAL is enabled.
      *
      * @param msg  The Message to be logged.
      * @param args Any arguments used for formatting (If your <code>msg</code> contains formatting characters)
      */
     public void fatal(String msg, Object... args){
+        if(out.isFatalEnabled()){
+            writeFatal(String.format(msg, args));
+        }
+    }
+
+    /**
+     * Log a FATAL level message to the underlying <code>ConsoleOut</code>. The supplier is only called if FATAL is enabled.
+     *
+     * @param msg Supplies the Message to be logged.
+     */
+    public void fatal(Supplier<String> msg){
+        if(out.isFatalEnabled()){
+            writeFatal(msg.get());
+        }
+    }
+
+    private void writeFatal(String msg){
+        if(threadSafe){
+            out.fatal(msg);
+            return;
+        }
         synchronized(out){
-            out.fatal(String.format(msg, args));
+            out.fatal(msg);
         }
     }
 
     /**
-     * Log a <code>byte[]</code> buffer (in hex) as a DEBUG level message to the underlying <code>ConsoleOut</code>
+     * Log a <code>byte[]</code> buffer (in hex) as a DEBUG level message to the underlying <code>ConsoleOut</code>.
+     * Nothing is built if DEBUG is disabled.
      *
      * @param prefix The Prefix string before the Buffer.
      * @param buffer The <code>byte[]</code> to be logged (when logged, the buffer will be printed in hex)
      * @param suffix The Suffix string after the buffer.
      */
     public void buffer(String prefix, byte[] buffer, String suffix){
-        StringBuilder out = new StringBuilder(buffer.length * 3);
-        for(byte bite : buffer){
-            String string = Integer.toHexString(bite & 0xFF);
-            while(string.length() < 2){
-                string = "0" + string;
-            }
-            out.append(string);
-            out.append(',');
+        if(out.isDebugEnabled()){
+            writeDebug(prefix + "0x" + hex(buffer) + suffix);
+        }
+    }
+
+    /**
+     * Log a <code>byte[]</code> buffer (in hex) as a DEBUG level message to the underlying <code>ConsoleOut</code>.
+     * The prefix supplier is only called if DEBUG is enabled.
+     *
+     * @param prefix Supplies the Prefix string before the Buffer.
+     * @param buffer The <code>byte[]</code> to be logged (when logged, the buffer will be printed in hex)
+     * @param suffix The Suffix string after the buffer.
+     */
+    public void buffer(Supplier<String> prefix, byte[] buffer, String suffix){
+        if(out.isDebugEnabled()){
+            writeDebug(prefix.get() + "0x" + hex(buffer) + suffix);
         }
-        debug(prefix + "0x" + out.toString() + suffix);
+    }
+
+    private static String hex(byte[] buffer){
+        char[] chars = new char[buffer.length * 3];
+        for(int i = 0; i < buffer.length; i++){
+            chars[i * 3] = HEX[(buffer[i] >> 4) & 0x0F];
+            chars[i * 3 + 1] = HEX[buffer[i] & 0x0F];
+            chars[i * 3 + 2] = ',';
+        }
+        return new String(chars);
     }
 
     /**
@@ -134,13 +336,23 @@ public class Logger{
      * @param t The Throwable to be logged.
      */
     public void trace(Throwable t){
+        if(!out.isTraceEnabled()){
+            return;
+        }
         StringWriter writer = new StringWriter();
         t.printStackTrace(new PrintWriter(writer));
         for(String str : writer.toString().split("[\r\n]+")){
-            trace(str);
+            writeTrace(str);
         }
     }
 
+    /**
+     * Wait until messages logged so far have been written by the underlying <code>ConsoleOut</code>
+     */
+    public void flush(){
+        out.flush();
+    }
+
     public Class<? extends ConsoleOut> getConsoleOutClass(){
         return out.getClass();
     }
@@ -45,8 +45,12 @@ public class BinaryUtils {
     }
 
     public static Tag readNBTTag(byte[] bytes) {
+        return readNBTTag(bytes, 0, bytes.length);
+    }
+
+    public static Tag readNBTTag(byte[] bytes, int offset, int length) {
         try {
-            NBTInputStream in = new NBTInputStream(new ByteArrayInputStream(bytes));
+            NBTInputStream in = new NBTInputStream(new ByteArrayInputStream(bytes, offset, length));
             Tag t = in.readTag();
             in.close();
             return t;
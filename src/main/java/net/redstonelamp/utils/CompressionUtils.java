@@ -17,46 +17,213 @@
 package net.redstonelamp.utils;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
 /**
- * Utility methods for compression/decompression
+ * Utility methods for compression/decompression. Each thread reuses its own <code>Deflater</code>s,
+ * <code>Inflater</code> and output buffers, so no native zlib streams are created per call.
  *
  * @author RedstoneLamp Team
  */
 public class CompressionUtils{
+    /**
+     * The maximum amount of bytes <code>zlibInflate</code> inflates to, unless another limit is given
+     */
+    public static final int DEFAULT_INFLATE_LIMIT = 2 * 1024 * 1024;
+    private static final int SCRATCH_SIZE = 8192;
+    private static final int MAX_RETAINED_SCRATCH = 1024 * 1024;
+    private static final ThreadLocal<Engine> engines = ThreadLocal.withInitial(Engine::new);
+    private static final LongAdder deflatedIn = new LongAdder();
+    private static final LongAdder deflatedOut = new LongAdder();
+
+    /**
+     * Get the ratio of the compressed size to the uncompressed size of all data deflated so far.
+     *
+     * @return The compression ratio, or 0 if nothing was deflated yet.
+     */
+    public static double getCompressionRatio(){
+        long in = deflatedIn.sum();
+        return in == 0 ? 0 : (double) deflatedOut.sum() / in;
+    }
+
+    /**
+     * Get the maximum size <code>length</code> bytes can have after deflating, see zlib's <code>compressBound</code>.
+     *
+     * @param length The amount of uncompressed bytes
+     * @return The maximum amount of compressed bytes
+     */
+    public static int zlibDeflateBound(int length){
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 13;
+    }
 
     public static byte[] zlibDeflate(byte[] uncompressed, int level){
-        Deflater deflater = new Deflater(level, false);
-        deflater.setInput(uncompressed);
-        deflater.finish();
+        return zlibDeflate(uncompressed, 0, uncompressed.length, level);
+    }
 
-        byte[] compressed = new byte[uncompressed.length];
-        int len = deflater.deflate(compressed);
+    /**
+     * Deflate <code>length</code> bytes of <code>uncompressed</code> starting at <code>offset</code>.
+     *
+     * @param uncompressed The data to compress
+     * @param offset       The offset of the data in the array
+     * @param length       The amount of bytes to compress
+     * @param level        The compression level (0-9)
+     * @return The zlib compressed data
+     */
+    public static byte[] zlibDeflate(byte[] uncompressed, int offset, int length, int level){
+        Engine engine = engines.get();
+        Deflater deflater = engine.getDeflater(level);
+        deflater.setInput(uncompressed, offset, length);
+        deflater.finish();
+        byte[] out = engine.deflateScratch;
+        int len = 0;
+        while(!deflater.finished()){
+            if(len == out.length){
+                out = engine.deflateScratch = Arrays.copyOf(out, out.length * 2);
+            }
+            len += deflater.deflate(out, len, out.length - len);
+        }
+        deflater.reset();
+        byte[] compressed = Arrays.copyOf(out, len);
+        if(out.length > MAX_RETAINED_SCRATCH){
+            engine.deflateScratch = new byte[SCRATCH_SIZE];
+        }
+        deflatedIn.add(length);
+        deflatedOut.add(len);
+        return compressed;
+    }
 
-        return Arrays.copyOf(compressed, len);
+    /**
+     * Deflate <code>length</code> bytes of <code>uncompressed</code> starting at <code>offset</code> into a buffer
+     * provided by the caller. The output buffer must have room for at least <code>zlibDeflateBound(length)</code> bytes.
+     *
+     * @param uncompressed The data to compress
+     * @param offset       The offset of the data in the array
+     * @param length       The amount of bytes to compress
+     * @param level        The compression level (0-9)
+     * @param out          The buffer the compressed data is written to
+     * @param outOffset    The offset in <code>out</code> to start writing at
+     * @return The amount of compressed bytes written
+     * @throws IllegalArgumentException If the compressed data did not fit in <code>out</code>
+     */
+    public static int zlibDeflate(byte[] uncompressed, int offset, int length, int level, byte[] out, int outOffset){
+        Deflater deflater = engines.get().getDeflater(level);
+        try{
+            deflater.setInput(uncompressed, offset, length);
+            deflater.finish();
+            int len = 0;
+            while(!deflater.finished()){
+                if(outOffset + len == out.length){
+                    throw new IllegalArgumentException("Output buffer too small for " + length + " bytes of deflated data");
+                }
+                len += deflater.deflate(out, outOffset + len, out.length - outOffset - len);
+            }
+            deflatedIn.add(length);
+            deflatedOut.add(len);
+            return len;
+        }finally{
+            deflater.reset();
+        }
     }
 
     public static byte[] zlibInflate(byte[] compressed) throws DataFormatException{
-        Inflater inflater = new Inflater();
-        inflater.setInput(compressed);
-        byte[] uncompressed = new byte[64 * 64 * 64];
-        int len = inflater.inflate(uncompressed);
-        inflater.end();
-
-        return Arrays.copyOf(uncompressed, len);
+        return zlibInflate(compressed, 0, compressed.length, DEFAULT_INFLATE_LIMIT);
     }
 
     public static byte[] zlibInflate(byte[] compressed, int size) throws DataFormatException{
-        Inflater inflater = new Inflater();
-        inflater.setInput(compressed, 0, size);
-        byte[] uncompressed = new byte[64 * 64 * 64];
-        int len = inflater.inflate(uncompressed);
-        inflater.end();
+        return zlibInflate(compressed, 0, size, DEFAULT_INFLATE_LIMIT);
+    }
+
+    /**
+     * Inflate <code>length</code> bytes of zlib compressed data starting at <code>offset</code>.
+     *
+     * @param compressed The compressed data
+     * @param offset     The offset of the data in the array
+     * @param length     The amount of compressed bytes
+     * @param limit      The maximum amount of bytes the data may inflate to
+     * @return The uncompressed data
+     * @throws DataFormatException If the data is not valid zlib data, is truncated or inflates to more than <code>limit</code> bytes
+     */
+    public static byte[] zlibInflate(byte[] compressed, int offset, int length, int limit) throws DataFormatException{
+        Engine engine = engines.get();
+        byte[] out = engine.inflateScratch;
+        int len = 0;
+        Inflater inflater = engine.inflater;
+        try{
+            inflater.setInput(compressed, offset, length);
+            while(!inflater.finished()){
+                if(len == out.length){
+                    if(out.length >= limit){
+                        throw new DataFormatException("Data inflates to more than " + limit + " bytes");
+                    }
+                    out = engine.inflateScratch = Arrays.copyOf(out, (int) Math.min((long) limit, out.length * 2L));
+                }
+                len += inflate(inflater, out, len, out.length - len);
+            }
+        }finally{
+            inflater.reset();
+        }
+        byte[] uncompressed = Arrays.copyOf(out, len);
+        if(out.length > MAX_RETAINED_SCRATCH){
+            engine.inflateScratch = new byte[SCRATCH_SIZE];
+        }
+        return uncompressed;
+    }
 
-        return Arrays.copyOf(uncompressed, len);
+    /**
+     * Inflate <code>length</code> bytes of zlib compressed data starting at <code>offset</code> into a buffer provided
+     * by the caller.
+     *
+     * @param compressed The compressed data
+     * @param offset     The offset of the data in the array
+     * @param length     The amount of compressed bytes
+     * @param out        The buffer the uncompressed data is written to
+     * @param outOffset  The offset in <code>out</code> to start writing at
+     * @return The amount of uncompressed bytes written
+     * @throws DataFormatException If the data is not valid zlib data, is truncated or does not fit in <code>out</code>
+     */
+    public static int zlibInflate(byte[] compressed, int offset, int length, byte[] out, int outOffset) throws DataFormatException{
+        Inflater inflater = engines.get().inflater;
+        try{
+            inflater.setInput(compressed, offset, length);
+            int len = 0;
+            while(!inflater.finished()){
+                if(outOffset + len == out.length){
+                    throw new DataFormatException("Data inflates to more than " + (out.length - outOffset) + " bytes");
+                }
+                len += inflate(inflater, out, outOffset + len, out.length - outOffset - len);
+            }
+            return len;
+        }finally{
+            inflater.reset();
+        }
     }
 
+    private static int inflate(Inflater inflater, byte[] out, int offset, int length) throws DataFormatException{
+        int len = inflater.inflate(out, offset, length);
+        if(len == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+            throw new DataFormatException("Truncated zlib data");
+        }
+        return len;
+    }
+
+    /**
+     * The zlib streams and buffers of a single thread
+     */
+    private static class Engine{
+        private final Deflater[] deflaters = new Deflater[10];
+        private final Inflater inflater = new Inflater();
+        private byte[] deflateScratch = new byte[SCRATCH_SIZE];
+        private byte[] inflateScratch = new byte[SCRATCH_SIZE];
+
+        private Deflater getDeflater(int level){
+            int index = level == Deflater.DEFAULT_COMPRESSION ? 6 : Math.max(0, Math.min(9, level));
+            if(deflaters[index] == null){
+                deflaters[index] = new Deflater(index, false);
+            }
+            return deflaters[index];
+        }
+    }
 }